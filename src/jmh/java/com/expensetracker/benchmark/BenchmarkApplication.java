@@ -0,0 +1,45 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.ExpenseTrackerApplication;
+import com.expensetracker.config.SyntheticDataGenerator;
+import com.expensetracker.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application without a web server against a private in-memory H2 database, seeded by
+ * {@link SyntheticDataGenerator}, so benchmarks exercise the real services, repositories and SQL.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application with one synthetic user owning {@code rows} expenses.
+     */
+    static ConfigurableApplicationContext start(int rows) {
+        // Passed as arguments so they override application.properties and the profile files
+        return new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=h2",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.sql.init.mode=never",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--seed.synthetic.enabled=true",
+                        "--seed.synthetic.users=1",
+                        "--seed.synthetic.expenses-per-user=" + rows,
+                        "--seed.synthetic.days=730");
+    }
+
+    static Long userId(ConfigurableApplicationContext context) {
+        return context.getBean(UserRepository.class)
+                .findByUsername(SyntheticDataGenerator.USERNAME_PREFIX + 1)
+                .orElseThrow()
+                .getId();
+    }
+}
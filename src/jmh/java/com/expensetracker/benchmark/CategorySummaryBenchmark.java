@@ -0,0 +1,123 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.CategorySummaryDTO;
+import com.expensetracker.model.Money;
+import com.expensetracker.service.ExpenseAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The money math behind category summaries: percentages over pre-aggregated category totals, and the
+ * single-pass aggregation used by reports and the PDF export. The {@code *BigDecimal} variants are the former
+ * {@code BigDecimal} implementations, kept as a baseline for the {@link Money} minor-unit versions. Their
+ * equivalence is covered by {@code MoneyTest} and {@code ExpenseAggregatorTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategorySummaryBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"10", "100"})
+    private int categories;
+
+    private List<CategorySummaryDTO> summary;
+    private long[] rowCategoryIds;
+    private String[] rowCategoryNames;
+    private BigDecimal[] rowAmounts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        summary = new ArrayList<>(categories);
+        for (long id = 1; id <= categories; id++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+            summary.add(new CategorySummaryDTO(id, "Category " + id, amount, random.nextInt(1000) + 1L, 0.0));
+        }
+
+        rowCategoryIds = new long[ROWS];
+        rowCategoryNames = new String[ROWS];
+        rowAmounts = new BigDecimal[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rowCategoryIds[i] = 1 + random.nextInt(categories);
+            rowCategoryNames[i] = summary.get((int) rowCategoryIds[i] - 1).getCategoryName();
+            rowAmounts[i] = BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+        }
+    }
+
+    @Benchmark
+    public List<CategorySummaryDTO> percentages() {
+        ExpenseAggregator.applyPercentages(summary);
+        return summary;
+    }
+
+    @Benchmark
+    public List<CategorySummaryDTO> percentagesBigDecimal() {
+        BigDecimal total = summary.stream().map(CategorySummaryDTO::getTotalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        for (CategorySummaryDTO dto : summary) {
+            dto.setPercentage(percentageBigDecimal(dto.getTotalAmount(), total));
+        }
+        return summary;
+    }
+
+    @Benchmark
+    public List<CategorySummaryDTO> aggregateRows() {
+        ExpenseAggregator aggregator = new ExpenseAggregator();
+        for (int i = 0; i < ROWS; i++) {
+            aggregator.add(rowCategoryIds[i], rowCategoryNames[i], rowAmounts[i]);
+        }
+        return aggregator.getCategorySummary();
+    }
+
+    @Benchmark
+    public List<CategorySummaryDTO> aggregateRowsBigDecimal() {
+        Map<Long, CategorySummaryDTO> byCategory = new LinkedHashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++) {
+            total = total.add(rowAmounts[i]);
+            CategorySummaryDTO category = byCategory.get(rowCategoryIds[i]);
+            if (category == null) {
+                byCategory.put(rowCategoryIds[i], new CategorySummaryDTO(rowCategoryIds[i], rowCategoryNames[i], rowAmounts[i], 1L));
+            } else {
+                category.setTotalAmount(category.getTotalAmount().add(rowAmounts[i]));
+                category.setExpenseCount(category.getExpenseCount() + 1);
+            }
+        }
+        List<CategorySummaryDTO> result = new ArrayList<>(byCategory.values());
+        result.sort(Comparator.comparing(CategorySummaryDTO::getTotalAmount).reversed());
+        for (CategorySummaryDTO dto : result) {
+            dto.setPercentage(percentageBigDecimal(dto.getTotalAmount(), total));
+        }
+        return result;
+    }
+
+    private static double percentageBigDecimal(BigDecimal part, BigDecimal total) {
+        if (total.compareTo(BigDecimal.ZERO) <= 0) {
+            return 0.0;
+        }
+        return part.divide(total, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).doubleValue();
+    }
+}
@@ -0,0 +1,72 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.service.ExpenseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing a user's expenses: the DTO projection query with category names filled in, Jackson serialization
+ * of the resulting list, and both together as the list endpoint does them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseListBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private ObjectMapper objectMapper;
+    private Long userId;
+    private List<ExpenseDTO> expenses;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(rows);
+        expenseService = context.getBean(ExpenseService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        userId = BenchmarkApplication.userId(context);
+        expenses = expenseService.getAllExpenses(userId, null, null, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExpenseDTO> load() {
+        return expenseService.getAllExpenses(userId, null, null, null);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(expenses);
+    }
+
+    @Benchmark
+    public byte[] loadAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(expenseService.getAllExpenses(userId, null, null, null));
+    }
+}
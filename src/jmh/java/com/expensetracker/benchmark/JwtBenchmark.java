@@ -0,0 +1,73 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.security.AuthenticatedUser;
+import com.expensetracker.security.JwtTokenCache;
+import com.expensetracker.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token work: issuing, verifying and validating a JWT, and the verified-token cache hit that
+ * replaces verification on repeat requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "ExpenseTrackerSecretKey2026ForJWTTokenGenerationAndValidation";
+
+    private JwtUtil jwtUtil;
+    private JwtTokenCache tokenCache;
+    private AuthenticatedUser user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        user = new AuthenticatedUser(1L, "alice", null);
+        token = jwtUtil.generateToken(user.getId(), user.getUsername(), 0);
+
+        tokenCache = new JwtTokenCache(10_000, 300_000L);
+        tokenCache.put(token, new JwtTokenCache.VerifiedToken(user, 0), System.currentTimeMillis() + 86_400_000L);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user.getId(), user.getUsername(), 0);
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean parseAndValidate() {
+        return jwtUtil.validateClaims(jwtUtil.parseClaims(token), user);
+    }
+
+    @Benchmark
+    public JwtTokenCache.VerifiedToken cacheHit() {
+        return tokenCache.get(token);
+    }
+}
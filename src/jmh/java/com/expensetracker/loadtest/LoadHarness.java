@@ -0,0 +1,288 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load generator for a running instance seeded by
+ * {@link com.expensetracker.config.SyntheticDataGenerator}. Each worker logs in as one of the synthetic
+ * users and then issues a weighted mix of expense CRUD, summary and export requests back to back.
+ * Latencies are recorded per operation in HdrHistograms; requests issued during the warmup are discarded.
+ * Each user logs in once up front and its workers share the token, so thousands of connections
+ * ({@code --threads 5000}) do not start with a burst of bcrypt checks; {@code login} in the mix still
+ * measures logins.
+ * <p>
+ * Options (all optional): {@code --base-url http://localhost:8080 --users 10 --password loadtest
+ * --threads 16 --warmup 10 --duration 60 --mix login=1,list=40,get=15,create=10,update=10,delete=5,summary=14,export=5}
+ */
+public final class LoadHarness {
+
+    enum Operation { LOGIN, LIST, GET, CREATE, UPDATE, DELETE, SUMMARY, EXPORT }
+
+    private static final String[] SUMMARY_PATHS = {"/api/summary/total", "/api/summary/by-category", "/api/summary/monthly"};
+    private static final long CATEGORY_COUNT = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+    private final int users;
+    private final String password;
+    private final int threads;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final Operation[] weightedOperations;
+
+    private LoadHarness(Map<String, String> options) {
+        baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        users = Integer.parseInt(options.getOrDefault("users", "10"));
+        password = options.getOrDefault("password", "loadtest");
+        threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        warmupNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))).toNanos();
+        durationNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))).toNanos();
+        weightedOperations = parseMix(options.getOrDefault("mix",
+                "login=1,list=40,get=15,create=10,update=10,delete=5,summary=14,export=5"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadHarness(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        Map<String, String> tokens = new LinkedHashMap<>();
+        for (int n = 1; n <= users; n++) {
+            String username = "loaduser" + n;
+            String token = login(username);
+            if (token == null) {
+                System.err.println("Login failed for " + username + "; is the app seeded with --seed.synthetic.enabled=true?");
+                return;
+            }
+            tokens.put(username, token);
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long deadline = measureFrom + durationNanos;
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> workerThreads = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String username = "loaduser" + (i % users + 1);
+            Worker worker = new Worker(username, tokens.get(username), measureFrom, deadline);
+            workers.add(worker);
+            // Small stacks so thousands of blocking workers fit comfortably
+            Thread thread = new Thread(null, worker, "load-worker-" + i, 256 * 1024);
+            workerThreads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workerThreads) {
+            thread.join();
+        }
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        for (Worker worker : workers) {
+            worker.histograms.forEach((operation, histogram) ->
+                    histograms.computeIfAbsent(operation, key -> new Histogram(3)).add(histogram));
+            worker.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+        }
+        report(histograms, errors, durationNanos / 1e9);
+    }
+
+    private String login(String username) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(loginJson(username)))
+                .build();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? objectMapper.readTree(response.body()).get("token").asText() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String loginJson(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private void report(Map<Operation, Histogram> histograms, Map<Operation, Long> errors, double seconds) {
+        System.out.printf("%n%d threads, %d users, %.0f s measured after %.0f s warmup against %s%n%n",
+                threads, users, seconds, warmupNanos / 1e9, baseUrl);
+        System.out.printf("%-8s %9s %7s %9s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            long errorCount = errors.getOrDefault(entry.getKey(), 0L);
+            printRow(entry.getKey().name().toLowerCase(), entry.getValue(), errorCount, seconds);
+            total.add(entry.getValue());
+            totalErrors += errorCount;
+        }
+        printRow("total", total, totalErrors, seconds);
+    }
+
+    private static void printRow(String name, Histogram histogram, long errorCount, double seconds) {
+        System.out.printf("%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errorCount, histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+    }
+
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] weight = part.trim().split("=");
+            Operation operation = Operation.valueOf(weight[0].trim().toUpperCase());
+            for (int i = 0; i < Integer.parseInt(weight[1].trim()); i++) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        return weighted.toArray(new Operation[0]);
+    }
+
+    private final class Worker implements Runnable {
+
+        private final String username;
+        private final long measureFrom;
+        private final long deadline;
+        private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        // Existing expenses are only read; update and delete work on this worker's own creations
+        private final List<Long> knownIds = new ArrayList<>();
+        private final List<Long> createdIds = new ArrayList<>();
+        private String token;
+
+        private Worker(String username, String token, long measureFrom, long deadline) {
+            this.username = username;
+            this.token = token;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            execute(Operation.LIST);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                execute(weightedOperations[random.nextInt(weightedOperations.length)]);
+            }
+        }
+
+        private void execute(Operation requested) {
+            Operation operation = resolve(requested);
+            HttpRequest request = buildRequest(operation);
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                long micros = (System.nanoTime() - start) / 1000;
+                failed = response.statusCode() >= 400;
+                if (start >= measureFrom) {
+                    histograms.computeIfAbsent(operation, key -> new Histogram(3)).recordValue(micros);
+                }
+                if (!failed) {
+                    onSuccess(operation, response.body());
+                }
+            } catch (Exception e) {
+                failed = true;
+            }
+            if (failed && start >= measureFrom) {
+                errors.merge(operation, 1L, Long::sum);
+            }
+        }
+
+        /**
+         * Falls back to an operation that can run now: reads need a known id, writes need an own expense.
+         */
+        private Operation resolve(Operation operation) {
+            return switch (operation) {
+                case GET -> knownIds.isEmpty() ? Operation.LIST : operation;
+                case UPDATE, DELETE -> createdIds.isEmpty() ? Operation.CREATE : operation;
+                default -> operation;
+            };
+        }
+
+        private HttpRequest buildRequest(Operation operation) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (operation) {
+                case LOGIN -> post("/api/auth/login", loginJson(username));
+                case LIST -> get("/api/expenses/page?size=50");
+                case GET -> get("/api/expenses/" + knownIds.get(random.nextInt(knownIds.size())));
+                case CREATE -> post("/api/expenses", randomExpense(random));
+                case UPDATE -> authorized("/api/expenses/" + createdIds.get(random.nextInt(createdIds.size())))
+                        .PUT(HttpRequest.BodyPublishers.ofString(randomExpense(random))).build();
+                case DELETE -> authorized("/api/expenses/" + createdIds.get(createdIds.size() - 1)).DELETE().build();
+                case SUMMARY -> get(SUMMARY_PATHS[random.nextInt(SUMMARY_PATHS.length)]);
+                case EXPORT -> get("/api/export/csv?startDate=" + LocalDate.now().minusDays(30));
+            };
+        }
+
+        private void onSuccess(Operation operation, byte[] body) throws Exception {
+            switch (operation) {
+                case LOGIN -> token = objectMapper.readTree(body).get("token").asText();
+                case LIST -> {
+                    JsonNode content = objectMapper.readTree(body).get("content");
+                    if (knownIds.isEmpty() && content != null) {
+                        content.forEach(expense -> knownIds.add(expense.get("id").asLong()));
+                    }
+                }
+                case CREATE -> createdIds.add(objectMapper.readTree(body).get("id").asLong());
+                case DELETE -> createdIds.remove(createdIds.size() - 1);
+                default -> { }
+            }
+        }
+
+        private String randomExpense(ThreadLocalRandom random) {
+            return "{\"description\":\"Load test expense\",\"amount\":" + (100 + random.nextInt(100_000)) / 100.0
+                    + ",\"date\":\"" + LocalDate.now().minusDays(random.nextInt(365))
+                    + "\",\"categoryId\":" + (1 + random.nextLong(CATEGORY_COUNT)) + "}";
+        }
+
+        private HttpRequest get(String path) {
+            return authorized(path).GET().build();
+        }
+
+        private HttpRequest post(String path, String json) {
+            return authorized(path).POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json");
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.expensetracker.cache;
+
+import com.expensetracker.model.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One user's expenses per day, as prefix sums over a dense run of days starting at epoch day {@code firstDay}.
+ * Amounts are held as {@link Money} minor units (cents), so the total of any window of days, overall or per
+ * category, is the difference of two array entries. Not thread-safe; {@link DailySeriesCache} guards access.
+ */
+public final class DailySeries {
+
+    // Days kept after the later of the last expense and today, so new expenses usually land inside the span
+    private static final int HEADROOM_DAYS = 31;
+
+    private final int firstDay;
+    private final int days;
+    private final long[] categoryIds;
+    // amountPrefix[i] is the sum over days [firstDay, firstDay + i), so it has days + 1 entries
+    private final long[] amountPrefix;
+    private final long[] countPrefix;
+    private final long[][] categoryAmountPrefix;
+
+    private DailySeries(int firstDay, int days, long[] categoryIds) {
+        this.firstDay = firstDay;
+        this.days = days;
+        this.categoryIds = categoryIds;
+        this.amountPrefix = new long[days + 1];
+        this.countPrefix = new long[days + 1];
+        this.categoryAmountPrefix = new long[categoryIds.length][days + 1];
+    }
+
+    /**
+     * Builds a series from {@code (date, categoryId, amount, count)} rows, one per day and category, spanning
+     * the user's first expense to {@link #HEADROOM_DAYS} past the later of their last expense and today.
+     * Returns {@code null} without allocating when that series would take more than {@code maxBytes}.
+     */
+    public static DailySeries build(List<Object[]> rows, LocalDate today, long maxBytes) {
+        int first = (int) today.toEpochDay();
+        int last = first;
+        for (Object[] row : rows) {
+            int day = (int) ((LocalDate) row[0]).toEpochDay();
+            first = Math.min(first, day);
+            last = Math.max(last, day);
+        }
+        long[] categoryIds = categoryIds(rows);
+        int days = last - first + 1 + HEADROOM_DAYS;
+        if (sizeInBytes(days, categoryIds.length) > maxBytes) {
+            return null;
+        }
+        return fill(new DailySeries(first, days, categoryIds), rows);
+    }
+
+    /**
+     * Builds a series covering only the inclusive date range, ignoring rows outside it, for reads that
+     * cannot be served from a whole-history series.
+     */
+    public static DailySeries window(List<Object[]> rows, LocalDate from, LocalDate to) {
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        List<Object[]> inside = rows.stream()
+                .filter(row -> {
+                    long day = ((LocalDate) row[0]).toEpochDay();
+                    return day >= first && day <= last;
+                })
+                .toList();
+        return fill(new DailySeries(first, Math.max(last - first + 1, 0), categoryIds(inside)), inside);
+    }
+
+    private static long[] categoryIds(List<Object[]> rows) {
+        long[] categoryIds = new long[0];
+        for (Object[] row : rows) {
+            long categoryId = (Long) row[1];
+            if (Arrays.binarySearch(categoryIds, categoryId) < 0) {
+                categoryIds = Arrays.copyOf(categoryIds, categoryIds.length + 1);
+                categoryIds[categoryIds.length - 1] = categoryId;
+                Arrays.sort(categoryIds);
+            }
+        }
+        return categoryIds;
+    }
+
+    private static DailySeries fill(DailySeries series, List<Object[]> rows) {
+        // Accumulate per-day values at index i + 1, then turn them into running sums
+        for (Object[] row : rows) {
+            int index = (int) ((LocalDate) row[0]).toEpochDay() - series.firstDay + 1;
+            long amount = Money.toMinorUnits((BigDecimal) row[2]);
+            series.amountPrefix[index] += amount;
+            series.countPrefix[index] += ((Number) row[3]).longValue();
+            series.categoryAmountPrefix[series.slot((Long) row[1])][index] += amount;
+        }
+        accumulate(series.amountPrefix);
+        accumulate(series.countPrefix);
+        for (long[] prefix : series.categoryAmountPrefix) {
+            accumulate(prefix);
+        }
+        return series;
+    }
+
+    /**
+     * Adds a change to one day in place. Returns {@code false} when the day lies outside the span or the
+     * category is new to this series; the caller should then drop the series and rebuild it.
+     */
+    boolean apply(LocalDate date, Long categoryId, BigDecimal amount, int count) {
+        int index = (int) date.toEpochDay() - firstDay;
+        int slot = slot(categoryId);
+        if (index < 0 || index >= days || slot < 0) {
+            return false;
+        }
+        long minorUnits = Money.toMinorUnits(amount);
+        long[] categoryPrefix = categoryAmountPrefix[slot];
+        for (int i = index + 1; i <= days; i++) {
+            amountPrefix[i] += minorUnits;
+            countPrefix[i] += count;
+            categoryPrefix[i] += minorUnits;
+        }
+        return true;
+    }
+
+    public int firstDay() {
+        return firstDay;
+    }
+
+    public int lastDay() {
+        return firstDay + days - 1;
+    }
+
+    public long[] categoryIds() {
+        return categoryIds.clone();
+    }
+
+    /**
+     * Total in minor units over the inclusive epoch-day range; days outside the span count as zero.
+     */
+    public long amountBetween(int fromDay, int toDay) {
+        return window(amountPrefix, fromDay, toDay);
+    }
+
+    public long countBetween(int fromDay, int toDay) {
+        return window(countPrefix, fromDay, toDay);
+    }
+
+    public long categoryAmountBetween(int slot, int fromDay, int toDay) {
+        return window(categoryAmountPrefix[slot], fromDay, toDay);
+    }
+
+    /**
+     * Approximate heap footprint, used for the cache's memory budget.
+     */
+    long sizeInBytes() {
+        return sizeInBytes(days, categoryIds.length);
+    }
+
+    private static long sizeInBytes(long days, int categories) {
+        return 64 + 8L * categories + 8L * (days + 1) * (2 + categories) + 16L * (3 + categories);
+    }
+
+    private int slot(Long categoryId) {
+        int slot = Arrays.binarySearch(categoryIds, categoryId);
+        return slot >= 0 ? slot : -1;
+    }
+
+    private long window(long[] prefix, int fromDay, int toDay) {
+        int from = Math.max(fromDay - firstDay, 0);
+        int to = Math.min(toDay - firstDay + 1, days);
+        return from < to ? prefix[to] - prefix[from] : 0;
+    }
+
+    private static void accumulate(long[] prefix) {
+        for (int i = 1; i < prefix.length; i++) {
+            prefix[i] += prefix[i - 1];
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.expensetracker.cache;
+
+import com.expensetracker.event.ExpensesChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Per-user {@link DailySeries}, built lazily on first read and patched in place after single-expense writes
+ * commit. Other writes drop the user's series. When the total size exceeds
+ * {@code summary.daily-cache.max-bytes}, the least recently read series are evicted. A series that alone would
+ * exceed the budget is never built; {@link #read} then returns {@code null} and the caller serves the read itself.
+ * Series are rebuilt once they are older than {@code summary.daily-cache.ttl}, since writes made on other nodes
+ * or a build that read a lagging replica are never reported here.
+ * <p>
+ * A series built while a write to the same user is in flight may or may not include it, so it is only
+ * installed when no write was pending when it finished and none completed while it was being built
+ * (the user's generation is unchanged). Otherwise the build serves that one read and is discarded.
+ */
+@Component
+@Slf4j
+public class DailySeriesCache {
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final Map<Long, UserState> users = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public DailySeriesCache(@Value("${summary.daily-cache.max-bytes:67108864}") long maxBytes,
+                            @Value("${summary.daily-cache.ttl:300000}") long ttlMillis,
+                            MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        Gauge.builder("summary.daily.cache.bytes", usedBytes, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("summary.daily.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("summary.daily.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("summary.daily.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("summary.daily.cache.expirations", expirations, LongAdder::sum).register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code reader} against the user's series, building it with {@code builder} on a miss. The builder
+     * receives the byte budget and returns {@code null} when the series would not fit, in which case this
+     * returns {@code null}. The reader runs under the user's lock, so it must not retain the series.
+     */
+    public <T> T read(Long userId, LongFunction<DailySeries> builder, Function<DailySeries, T> reader) {
+        UserState state = state(userId);
+        long generation;
+        state.lock.lock();
+        try {
+            long now = System.nanoTime();
+            state.lastRead = now;
+            if (state.series != null && now - state.builtAt >= ttlNanos) {
+                drop(state);
+                expirations.increment();
+            }
+            if (state.series != null) {
+                hits.increment();
+                return reader.apply(state.series);
+            }
+            generation = state.generation;
+        } finally {
+            state.lock.unlock();
+        }
+
+        misses.increment();
+        long buildStarted = System.nanoTime();
+        DailySeries built = builder.apply(maxBytes);
+        if (built == null) {
+            return null;
+        }
+
+        T result;
+        state.lock.lock();
+        try {
+            if (state.series == null && state.pendingWrites == 0 && state.generation == generation) {
+                state.series = built;
+                // Aged from when the build started reading, the oldest data it can contain
+                state.builtAt = buildStarted;
+                usedBytes.addAndGet(built.sizeInBytes());
+            }
+            result = reader.apply(state.series != null ? state.series : built);
+        } finally {
+            state.lock.unlock();
+        }
+        evictOverBudget();
+        return result;
+    }
+
+    /**
+     * Runs synchronously inside the writer's transaction to count the write as pending, and applies it once
+     * the transaction completes; a plain after-commit listener would leave a window where a concurrent build
+     * could see the write and then have it applied a second time.
+     */
+    @EventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        UserState state = state(event.getUserId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(state, event, false, true);
+            return;
+        }
+        state.lock.lock();
+        try {
+            state.pendingWrites++;
+        } finally {
+            state.lock.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(state, event, true, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    // Releasing the pending write and applying it happen under one lock, so no build can be installed in between
+    private void complete(UserState state, ExpensesChangedEvent event, boolean pending, boolean committed) {
+        state.lock.lock();
+        try {
+            if (pending) {
+                state.pendingWrites--;
+            }
+            if (!committed) {
+                return;
+            }
+            state.generation++;
+            if (state.series == null) {
+                return;
+            }
+            if (event.getDeltas() == null) {
+                drop(state);
+                return;
+            }
+            for (ExpensesChangedEvent.DailyDelta delta : event.getDeltas()) {
+                if (!state.series.apply(delta.getDate(), delta.getCategoryId(), delta.getAmount(), delta.getCount())) {
+                    drop(state);
+                    return;
+                }
+            }
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    private void evictOverBudget() {
+        if (usedBytes.get() <= maxBytes) {
+            return;
+        }
+        users.values().stream()
+                .filter(state -> state.series != null)
+                // Sort on a snapshot of lastRead, which concurrent reads keep changing
+                .map(state -> Map.entry(state, state.lastRead))
+                .sorted(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .takeWhile(state -> usedBytes.get() > maxBytes)
+                .forEach(state -> {
+                    state.lock.lock();
+                    try {
+                        if (state.series != null) {
+                            drop(state);
+                            evictions.increment();
+                        }
+                    } finally {
+                        state.lock.unlock();
+                    }
+                });
+        log.debug("Daily series cache evicted down to {} bytes", usedBytes.get());
+    }
+
+    // Caller holds the state's lock
+    private void drop(UserState state) {
+        if (state.series != null) {
+            usedBytes.addAndGet(-state.series.sizeInBytes());
+            state.series = null;
+        }
+    }
+
+    private UserState state(Long userId) {
+        return users.computeIfAbsent(userId, id -> new UserState());
+    }
+
+    private static final class UserState {
+        private final ReentrantLock lock = new ReentrantLock();
+        private DailySeries series;
+        private long builtAt;
+        private long generation;
+        private int pendingWrites;
+        private volatile long lastRead;
+    }
+}
@@ -0,0 +1,158 @@
+package com.expensetracker.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process LRU cache with a per-entry TTL. Every key carries the user's generation number;
+ * invalidating a user moves it to a new generation, which makes all of that user's older entries
+ * unreachable at once without scanning the map. They then age out through LRU or TTL eviction.
+ * <p>
+ * Generations are drawn from one process-wide sequence, so a number is never reused, and users start at
+ * generation 0. A TTL after a user's last invalidation, every entry stored under an earlier generation has
+ * expired; their record is dropped a TTL after that, leaving a margin for reads already in progress, and they
+ * go back to generation 0.
+ * <p>
+ * Hit, miss, eviction, expiration and invalidation counts and the entry count are published as
+ * {@code summary.cache.*} meters.
+ */
+public class LocalSummaryCache implements SummaryCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final AtomicLong generationSequence = new AtomicLong();
+    private final Map<Long, Generation> generations = new ConcurrentHashMap<>();
+    private volatile long lastPrunedAt = System.nanoTime();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // A lock rather than a monitor, so contended waits do not pin virtual threads to their carriers
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public LocalSummaryCache(int maxEntries, long ttlMillis, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        Gauge.builder("summary.cache.size", this, LocalSummaryCache::size).register(meterRegistry);
+        FunctionCounter.builder("summary.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("summary.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("summary.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("summary.cache.expirations", expirations, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("summary.cache.invalidations", invalidations, LongAdder::sum).register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String kind, LocalDate startDate, LocalDate endDate, Supplier<T> loader) {
+        // Take the time first and the generation before loading: a load racing with an invalidation is stored
+        // under the old generation and expires no later than a TTL after the invalidation
+        long now = System.nanoTime();
+        Key key = new Key(userId, generation(userId), kind, startDate, endDate);
+
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - now > 0) {
+                    hits.increment();
+                    return (T) entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        T value = loader.get();
+
+        lock.lock();
+        try {
+            entries.put(key, new Entry(value, now + ttlNanos));
+            evictOverflow();
+        } finally {
+            lock.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+        long now = System.nanoTime();
+        generations.put(userId, new Generation(generationSequence.incrementAndGet(), now));
+        invalidations.increment();
+        pruneGenerations(now);
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long generation(Long userId) {
+        Generation generation = generations.get(userId);
+        return generation != null ? generation.value : 0;
+    }
+
+    // At most once per TTL; removal is per entry, so a concurrent invalidation's newer generation is kept
+    private void pruneGenerations(long now) {
+        if (now - lastPrunedAt < ttlNanos) {
+            return;
+        }
+        lastPrunedAt = now;
+        generations.values().removeIf(generation -> now - generation.invalidatedAt >= 2 * ttlNanos);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final Long userId;
+        private final long generation;
+        private final String kind;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Generation {
+        private final long value;
+        private final long invalidatedAt;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+    }
+}
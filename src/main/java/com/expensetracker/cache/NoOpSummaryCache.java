@@ -0,0 +1,19 @@
+package com.expensetracker.cache;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Pass-through cache used when summary caching is disabled ({@code summary.cache.type=none}).
+ */
+public class NoOpSummaryCache implements SummaryCache {
+
+    @Override
+    public <T> T get(Long userId, String kind, LocalDate startDate, LocalDate endDate, Supplier<T> loader) {
+        return loader.get();
+    }
+
+    @Override
+    public void invalidateUser(Long userId) {
+    }
+}
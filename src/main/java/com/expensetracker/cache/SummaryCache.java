@@ -0,0 +1,16 @@
+package com.expensetracker.cache;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Cache for per-user summary results keyed on (userId, summary kind, startDate, endDate).
+ * Implementations must make {@link #invalidateUser(Long)} hide every entry cached for that user
+ * before the call returns, so a read after a committed write never sees stale totals.
+ */
+public interface SummaryCache {
+
+    <T> T get(Long userId, String kind, LocalDate startDate, LocalDate endDate, Supplier<T> loader);
+
+    void invalidateUser(Long userId);
+}
@@ -0,0 +1,18 @@
+package com.expensetracker.cache;
+
+import com.expensetracker.event.ExpensesChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class SummaryCacheInvalidator {
+
+    private final SummaryCache summaryCache;
+
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        summaryCache.invalidateUser(event.getUserId());
+    }
+}
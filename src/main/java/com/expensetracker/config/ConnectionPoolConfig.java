@@ -0,0 +1,35 @@
+package com.expensetracker.config;
+
+import com.expensetracker.datasource.ConnectionHoldTimingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the auto-configured pool behind a {@link LazyConnectionDataSourceProxy}, so a transaction checks out a
+ * connection only at its first statement (and not at all when it is answered from a cache), and times how
+ * long each call site holds it. {@link DataSourceRoutingConfig} wraps the routing data source the same way.
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionHoldTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource dataSource ? wrap(dataSource, meterRegistry) : bean;
+            }
+        };
+    }
+
+    static DataSource wrap(DataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ConnectionHoldTimingDataSource(dataSource, meterRegistry));
+    }
+}
@@ -0,0 +1,81 @@
+package com.expensetracker.config;
+
+import com.expensetracker.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with one that routes read-only transactions to the replicas in
+ * {@code datasource.routing.replicas} (see the {@code replicas} profile). The primary pool is built from the
+ * usual {@code spring.datasource.*} properties, and replica pools inherit {@code spring.datasource.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaRoutingProperties routing,
+                                                             Environment environment,
+                                                             MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        // These pools are not beans, so Spring Boot does not bind their metrics
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaRoutingProperties.Replica replica : routing.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName(replica.getName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setReadOnly(true);
+            dataSource.setConnectionTimeout(replica.getConnectionTimeout());
+            // A replica that is down at startup is reported by the health check instead of failing every attempt to start its pool
+            dataSource.setInitializationFailTimeout(-1);
+            if (replica.getMaximumPoolSize() != null) {
+                dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            }
+            dataSource.setMetricsTrackerFactory(metrics);
+            replicas.add(dataSource);
+        }
+        if (replicas.isEmpty()) {
+            log.warn("Replica routing is enabled but no replicas are configured; all reads use the primary");
+        }
+        log.info("Routing read-only transactions to {} replica(s) by {}", replicas.size(), routing.getStrategy());
+        return new ReplicaRoutingDataSource(primary, replicas, routing.getStrategy(),
+                routing.getReadYourWritesWindow(), meterRegistry);
+    }
+
+    // Lazy, so the connection is routed at the first statement, after the read-only flag has been set
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return ConnectionPoolConfig.wrap(replicaRoutingDataSource, meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.expensetracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class EmailOutboxConfig {
+
+    @Value("${email.outbox.workers:2}")
+    private int workers;
+
+    /**
+     * Fixed-size pool that sends claimed outbox batches, one SMTP connection per worker, so a slow relay
+     * holds at most {@code email.outbox.workers} threads and never a request thread.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService emailOutboxExecutor(Environment environment) {
+        return Executors.newFixedThreadPool(workers, WorkerThreads.factory(environment, "email-worker-"));
+    }
+}
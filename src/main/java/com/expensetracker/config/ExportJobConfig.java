@@ -0,0 +1,31 @@
+package com.expensetracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExportJobConfig {
+
+    @Value("${export.jobs.workers:2}")
+    private int workers;
+
+    /**
+     * Fixed-size worker pool for export jobs, kept apart from the Tomcat request threads. The priority queue
+     * orders waiting jobs by their task's natural ordering, so small exports are not stuck behind large ones.
+     * Jobs read rows in short per-page transactions, so a worker only holds a database connection while it
+     * fetches a page and the worker count is not tied to the pool size. It bounds the CPU, heap (the Excel row
+     * window, PDF layout) and disk bandwidth spent rendering; with virtual threads enabled the workers are
+     * virtual, but their number still bounds concurrent exports.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor exportJobExecutor(Environment environment) {
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), WorkerThreads.factory(environment, "export-worker-"));
+    }
+}
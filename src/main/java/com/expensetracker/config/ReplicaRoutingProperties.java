@@ -0,0 +1,32 @@
+package com.expensetracker.config;
+
+import com.expensetracker.datasource.ReplicaRoutingDataSource;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code datasource.routing.*}; bound as a class rather than through {@code @Value} because of the replica list.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private ReplicaRoutingDataSource.Strategy strategy = ReplicaRoutingDataSource.Strategy.ROUND_ROBIN;
+    private long readYourWritesWindow = 5000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        // Defaults to spring.datasource.hikari.maximum-pool-size
+        private Integer maximumPoolSize;
+        // Short, so a replica that is down fails over to the primary quickly
+        private long connectionTimeout = 2000;
+    }
+}
@@ -0,0 +1,45 @@
+package com.expensetracker.config;
+
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseRollupRepository;
+import com.expensetracker.service.ExpenseRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds or verifies the expense rollups at startup. Pass {@code --rollups.rebuild=true} to recompute
+ * every user's rollups, or {@code --rollups.verify=true} (optionally with {@code --rollups.repair=true})
+ * to reconcile them against the raw rows. An empty rollup table is backfilled automatically.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RollupMaintenanceRunner implements CommandLineRunner {
+
+    private final ExpenseRollupService rollupService;
+    private final ExpenseRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+
+    @Value("${rollups.rebuild:false}")
+    private boolean rebuild;
+
+    @Value("${rollups.verify:false}")
+    private boolean verify;
+
+    @Value("${rollups.repair:false}")
+    private boolean repair;
+
+    @Override
+    public void run(String... args) {
+        if (rebuild || (rollupRepository.count() == 0 && expenseRepository.count() > 0)) {
+            log.info("Rebuilding expense rollups...");
+            rollupService.rebuildAll();
+        } else if (verify) {
+            log.info("Verifying expense rollups...");
+            rollupService.verifyAll(repair);
+        }
+    }
+}
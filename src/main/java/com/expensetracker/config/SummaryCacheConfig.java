@@ -0,0 +1,33 @@
+package com.expensetracker.config;
+
+import com.expensetracker.cache.LocalSummaryCache;
+import com.expensetracker.cache.NoOpSummaryCache;
+import com.expensetracker.cache.SummaryCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the {@link SummaryCache} implementation through {@code summary.cache.type}. A shared cache
+ * for multi-node deployments only needs to provide another {@link SummaryCache} bean here.
+ */
+@Configuration
+public class SummaryCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "summary.cache.type", havingValue = "local", matchIfMissing = true)
+    public SummaryCache localSummaryCache(
+            @Value("${summary.cache.max-entries:10000}") int maxEntries,
+            @Value("${summary.cache.ttl:300000}") long ttl,
+            MeterRegistry meterRegistry) {
+        return new LocalSummaryCache(maxEntries, ttl, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "summary.cache.type", havingValue = "none")
+    public SummaryCache noOpSummaryCache() {
+        return new NoOpSummaryCache();
+    }
+}
@@ -0,0 +1,163 @@
+package com.expensetracker.config;
+
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.ExpenseRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds synthetic users and expenses for load testing. Enable with {@code --seed.synthetic.enabled=true};
+ * users are named {@code loaduser1..N} and share {@code seed.synthetic.password}. Expenses are spread over
+ * the last {@code seed.synthetic.days} days, and categories follow a Zipf distribution with exponent
+ * {@code seed.synthetic.category-skew} (0 is uniform). Rows go in through JDBC batch inserts, after which
+ * each user's rollups are rebuilt. Each user is seeded in one transaction, so an interrupted run leaves no
+ * half-seeded user behind; users that already exist are skipped, so re-running is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "seed.synthetic.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDataGenerator {
+
+    public static final String USERNAME_PREFIX = "loaduser";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (description, amount, date, category_id, user_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] DESCRIPTIONS = {
+            "Groceries", "Coffee", "Lunch", "Dinner out", "Fuel", "Metro card", "Taxi", "Electricity bill",
+            "Internet bill", "Phone recharge", "Movie tickets", "Streaming subscription", "Pharmacy", "Gym",
+            "Books", "Online course", "Clothing", "Electronics", "Flight", "Hotel", "Gift", "Haircut"
+    };
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ExpenseRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${seed.synthetic.users:10}")
+    private int users;
+
+    @Value("${seed.synthetic.expenses-per-user:1000}")
+    private int expensesPerUser;
+
+    @Value("${seed.synthetic.days:365}")
+    private int days;
+
+    @Value("${seed.synthetic.category-skew:1.0}")
+    private double categorySkew;
+
+    @Value("${seed.synthetic.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${seed.synthetic.password:loadtest}")
+    private String password;
+
+    // Runs after DataLoader so the categories exist
+    @EventListener(ApplicationReadyEvent.class)
+    public void generate() {
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+        if (categoryIds.isEmpty()) {
+            log.warn("No categories found, skipping synthetic data");
+            return;
+        }
+        double[] cumulativeWeights = zipfCumulativeWeights(categoryIds.size(), categorySkew);
+        String encodedPassword = passwordEncoder.encode(password);
+        Random random = new Random(randomSeed);
+
+        long start = System.nanoTime();
+        int createdUsers = 0;
+        for (int n = 1; n <= users; n++) {
+            String username = USERNAME_PREFIX + n;
+            if (userRepository.existsByUsername(username)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = new User();
+                user.setUsername(username);
+                user.setEmail(username + "@loadtest.local");
+                user.setPassword(encodedPassword);
+                Long userId = userRepository.save(user).getId();
+
+                insertExpenses(userId, categoryIds, cumulativeWeights, random);
+                rollupService.rebuild(userId);
+                // Delivered to the after-commit cache listeners once this user's transaction commits
+                eventPublisher.publishEvent(new ExpensesChangedEvent(userId));
+            });
+            createdUsers++;
+        }
+        log.info("Generated {} synthetic users with {} expenses each in {} ms ({} users already existed)",
+                createdUsers, expensesPerUser, (System.nanoTime() - start) / 1_000_000, users - createdUsers);
+    }
+
+    private void insertExpenses(Long userId, List<Long> categoryIds, double[] cumulativeWeights, Random random) {
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < expensesPerUser; i++) {
+            batch.add(new Object[]{
+                    DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)],
+                    randomAmount(random),
+                    Date.valueOf(today.minusDays(random.nextInt(Math.max(1, days)))),
+                    categoryIds.get(pick(cumulativeWeights, random.nextDouble())),
+                    userId, now, now});
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+    }
+
+    /**
+     * Log-normal amounts: mostly tens to hundreds, with a long tail, between 1.00 and 99,999.99.
+     */
+    private static BigDecimal randomAmount(Random random) {
+        long cents = Math.round(Math.exp(7.5 + 1.2 * random.nextGaussian()));
+        return BigDecimal.valueOf(Math.max(100, Math.min(cents, 9_999_999)), 2);
+    }
+
+    private static double[] zipfCumulativeWeights(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulativeWeights, double value) {
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeWeights.length - 1);
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Declares the executor behind {@code @Async} methods and Spring MVC async requests (streamed exports and
+ * NDJSON listings). Spring Boot only creates it when no other {@link java.util.concurrent.Executor} bean
+ * exists, and the export job pool is one, so without this bean async requests fall back to an unbounded
+ * thread-per-task executor. With {@code spring.threads.virtual.enabled=true} on Java 21 it runs each task on
+ * a virtual thread; otherwise it is a pool sized by {@code spring.task.execution.pool.*}, which
+ * application.properties sets explicitly because Boot's default of 8 threads with an unbounded queue would cap
+ * concurrent streams at 8 and park the rest.
+ */
+@Configuration
+public class TaskExecutorConfig {
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(Environment environment,
+                                                     SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+                                                     ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return simpleAsyncTaskExecutorBuilder.build();
+        }
+        return threadPoolTaskExecutorBuilder.build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.expensetracker.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own worker pools: virtual threads when
+ * {@code spring.threads.virtual.enabled} is active, daemon platform threads otherwise.
+ */
+final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    static ThreadFactory factory(Environment environment, String prefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory platformThreadFactory = new CustomizableThreadFactory(prefix);
+        platformThreadFactory.setDaemon(true);
+        return platformThreadFactory;
+    }
+}
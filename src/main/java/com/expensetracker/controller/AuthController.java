@@ -4,12 +4,13 @@ import com.expensetracker.dto.AuthResponse;
 import com.expensetracker.dto.LoginRequest;
 import com.expensetracker.dto.RegisterRequest;
 import com.expensetracker.model.User;
+import com.expensetracker.security.AuthenticatedUser;
 import com.expensetracker.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -34,9 +35,15 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal AuthenticatedUser principal) {
+        userService.logoutAll(principal.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
-    public ResponseEntity<Map<String, Object>> getCurrentUser(Authentication authentication) {
-        User user = userService.getCurrentUser(authentication.getName());
+    public ResponseEntity<Map<String, Object>> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser principal) {
+        User user = userService.getCurrentUser(principal.getId());
         
         Map<String, Object> response = new HashMap<>();
         response.put("username", user.getUsername());
@@ -1,80 +1,78 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.EmailDeliveryDTO;
 import com.expensetracker.dto.EmailReportRequest;
+import com.expensetracker.security.AuthenticatedUser;
+import com.expensetracker.service.EmailOutboxService;
 import com.expensetracker.service.EmailService;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/email")
 @RequiredArgsConstructor
-@Slf4j
 public class EmailController {
 
     private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
 
+    /**
+     * Queues the report for delivery and returns its tracking id; poll {@code /reports/{trackingId}} for status.
+     */
     @PostMapping("/send-report")
-    public ResponseEntity<Map<String, Object>> sendExpenseReport(
-            Authentication authentication,
+    public ResponseEntity<EmailDeliveryDTO> sendExpenseReport(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestBody(required = false) EmailReportRequest request) {
-        
-        String username = authentication.getName();
-        Map<String, Object> response = new HashMap<>();
-
-        try {
-            emailService.sendExpenseReport(
-                    username,
-                    request != null ? request.getStartDate() : null,
-                    request != null ? request.getEndDate() : null
-            );
-
-            response.put("success", true);
-            response.put("message", "Expense report sent successfully to your registered email!");
-            return ResponseEntity.ok(response);
+        EmailDeliveryDTO delivery = emailOutboxService.enqueueExpenseReport(
+                principal.getId(),
+                request != null ? request.getStartDate() : null,
+                request != null ? request.getEndDate() : null
+        );
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(delivery);
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to send expense report for user {}: {}", username, e.getMessage());
-            response.put("success", false);
-            response.put("message", "Failed to send email: " + e.getMessage());
-            return ResponseEntity.internalServerError().body(response);
-        }
+    @GetMapping("/reports/{trackingId}")
+    public ResponseEntity<EmailDeliveryDTO> getReportDelivery(
+            @AuthenticationPrincipal AuthenticatedUser principal, @PathVariable String trackingId) {
+        return ResponseEntity.ok(emailOutboxService.getDelivery(principal.getId(), trackingId));
     }
 
     /**
-     * Download the expense report as HTML file (works when SMTP is blocked)
+     * Download the expense report as HTML file (works when SMTP is blocked). The page is streamed as it is
+     * rendered, so large reports start arriving immediately.
      */
     @GetMapping("/download-report")
-    public ResponseEntity<byte[]> downloadExpenseReport(
-            Authentication authentication,
+    public ResponseEntity<StreamingResponseBody> downloadExpenseReport(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        
-        String username = authentication.getName();
-
-        try {
-            byte[] htmlContent = emailService.generateReportAsHtml(username, startDate, endDate);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.TEXT_HTML);
-            headers.setContentDispositionFormData("attachment", "expense-report.html");
+        Long userId = principal.getId();
+        String username = principal.getUsername();
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            emailService.writeReport(userId, username, startDate, endDate, writer);
+            writer.flush();
+        };
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(htmlContent);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8));
+        headers.setContentDispositionFormData("attachment", "expense-report.html");
 
-        } catch (Exception e) {
-            log.error("Failed to generate expense report for user {}: {}", username, e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
 }
@@ -1,15 +1,29 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.BatchResultDTO;
+import com.expensetracker.dto.ExpenseBatchRequest;
 import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.dto.ExpensePageDTO;
+import com.expensetracker.dto.ImportResultDTO;
+import com.expensetracker.model.ImportFormat;
+import com.expensetracker.model.ImportMode;
+import com.expensetracker.security.AuthenticatedUser;
+import com.expensetracker.service.ExpenseImportService;
 import com.expensetracker.service.ExpenseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -18,41 +32,121 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ExpenseController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<List<ExpenseDTO>> getAllExpenses(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.getAllExpenses(userId, categoryId, startDate, endDate));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePageDTO> getExpensePage(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.getExpensePage(userId, categoryId, startDate, endDate, cursor, size));
+    }
+
+    /**
+     * Streams every matching expense as NDJSON, one keyset page (and one short transaction) at a time.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamExpenses(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        String username = authentication.getName();
-        return ResponseEntity.ok(expenseService.getAllExpenses(username, categoryId, startDate, endDate));
+        Long userId = principal.getId();
+
+        StreamingResponseBody body = outputStream -> {
+            String cursor = null;
+            do {
+                ExpensePageDTO page = expenseService.getExpensePage(
+                        userId, categoryId, startDate, endDate, cursor, ExpenseService.MAX_PAGE_SIZE);
+                for (ExpenseDTO expense : page.getContent()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(expense));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Bulk import from a CSV, JSON array or NDJSON body, chosen by the Content-Type header.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<ImportResultDTO> importExpenses(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(defaultValue = "ALL_OR_NOTHING") ImportMode mode,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        Long userId = principal.getId();
+        ImportResultDTO result = expenseImportService.importExpenses(
+                userId, ImportFormat.fromContentType(contentType), mode, request.getInputStream());
+        if (mode == ImportMode.ALL_OR_NOTHING && result.getFailed() > 0) {
+            return ResponseEntity.unprocessableEntity().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<BatchResultDTO> batchUpdate(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody ExpenseBatchRequest request) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.batchUpdate(userId, request));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResultDTO> batchDelete(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody ExpenseBatchRequest request) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.batchDelete(userId, request));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ExpenseDTO> getExpenseById(Authentication authentication, @PathVariable Long id) {
-        String username = authentication.getName();
-        return ResponseEntity.ok(expenseService.getExpenseById(username, id));
+    public ResponseEntity<ExpenseDTO> getExpenseById(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.getExpenseById(userId, id));
     }
 
     @PostMapping
-    public ResponseEntity<ExpenseDTO> createExpense(Authentication authentication, @Valid @RequestBody ExpenseDTO expenseDTO) {
-        String username = authentication.getName();
-        ExpenseDTO created = expenseService.createExpense(username, expenseDTO);
+    public ResponseEntity<ExpenseDTO> createExpense(@AuthenticationPrincipal AuthenticatedUser principal, @Valid @RequestBody ExpenseDTO expenseDTO) {
+        Long userId = principal.getId();
+        ExpenseDTO created = expenseService.createExpense(userId, expenseDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ExpenseDTO> updateExpense(Authentication authentication, @PathVariable Long id, @Valid @RequestBody ExpenseDTO expenseDTO) {
-        String username = authentication.getName();
-        return ResponseEntity.ok(expenseService.updateExpense(username, id, expenseDTO));
+    public ResponseEntity<ExpenseDTO> updateExpense(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id, @Valid @RequestBody ExpenseDTO expenseDTO) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.updateExpense(userId, id, expenseDTO));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteExpense(Authentication authentication, @PathVariable Long id) {
-        String username = authentication.getName();
-        expenseService.deleteExpense(username, id);
+    public ResponseEntity<Void> deleteExpense(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable Long id) {
+        Long userId = principal.getId();
+        expenseService.deleteExpense(userId, id);
         return ResponseEntity.noContent().build();
     }
 }
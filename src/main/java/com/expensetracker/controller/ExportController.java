@@ -1,86 +1,170 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.ExportJobDTO;
+import com.expensetracker.dto.ExportJobRequest;
+import com.expensetracker.security.AuthenticatedUser;
+import com.expensetracker.service.ExportArtifactStore;
+import com.expensetracker.service.ExportJob;
+import com.expensetracker.service.ExportJobService;
 import com.expensetracker.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/export")
 @RequiredArgsConstructor
 public class ExportController {
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final ExportService exportService;
+    private final ExportJobService exportJobService;
+    private final ExportArtifactStore exportArtifactStore;
 
     @GetMapping("/csv")
-    public ResponseEntity<byte[]> exportToCSV(
-            Authentication authentication,
+    public ResponseEntity<StreamingResponseBody> exportToCSV(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        try {
-            String username = authentication.getName();
-            byte[] csvData = exportService.exportToCSV(username, categoryId, startDate, endDate);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "expenses.csv");
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(csvData);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        Long userId = principal.getId();
+        StreamingResponseBody body = outputStream ->
+                exportService.writeCSV(userId, categoryId, startDate, endDate, outputStream);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "expenses.csv");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
 
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> exportToExcel(
-            Authentication authentication,
+    public ResponseEntity<StreamingResponseBody> exportToExcel(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        try {
-            String username = authentication.getName();
-            byte[] excelData = exportService.exportToExcel(username, categoryId, startDate, endDate);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "expenses.xlsx");
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelData);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        Long userId = principal.getId();
+        StreamingResponseBody body = outputStream ->
+                exportService.writeExcel(userId, categoryId, startDate, endDate, outputStream);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", "expenses.xlsx");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
 
     @GetMapping("/pdf")
-    public ResponseEntity<byte[]> exportToPDF(
-            Authentication authentication,
+    public ResponseEntity<StreamingResponseBody> exportToPDF(
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        try {
-            String username = authentication.getName();
-            byte[] pdfData = exportService.exportToPDF(username, categoryId, startDate, endDate);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "expenses.pdf");
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfData);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        Long userId = principal.getId();
+        StreamingResponseBody body = outputStream ->
+                exportService.writePDF(userId, categoryId, startDate, endDate, outputStream);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "expenses.pdf");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<ExportJobDTO> submitExportJob(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody ExportJobRequest request) {
+        Long userId = principal.getId();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.submit(userId, request));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ExportJobDTO> getExportJob(@AuthenticationPrincipal AuthenticatedUser principal, @PathVariable String id) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(exportJobService.getJob(userId, id));
+    }
+
+    /**
+     * Serves a finished export, honouring a single byte range. Uses Tomcat's sendfile when the connector
+     * offers it and falls back to {@link java.nio.channels.FileChannel#transferTo} otherwise.
+     */
+    @GetMapping("/jobs/{id}/download")
+    public void downloadExportJob(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Long userId = principal.getId();
+        ExportJob job = exportJobService.getCompletedJob(userId, id);
+        long length = job.getSizeBytes();
+        long start = 0;
+        long end = length - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (range != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                }
+            } catch (IllegalArgumentException e) {
+                start = length;
+            }
+            if (start >= length || start > end) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (end - start + 1 < length) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(job.getFormat().getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("expenses." + job.getFormat().getExtension())
+                .build()
+                .toString());
+        response.setContentLengthLong(count);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, job.getArtifact().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
         }
+        exportArtifactStore.transferTo(job.getArtifact(), start, count, Channels.newChannel(response.getOutputStream()));
     }
 }
@@ -1,12 +1,18 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.CategorySummaryDTO;
+import com.expensetracker.dto.ComparisonRequest;
+import com.expensetracker.dto.DailySeriesDTO;
 import com.expensetracker.dto.MonthlySummaryDTO;
+import com.expensetracker.dto.PeriodComparisonDTO;
+import com.expensetracker.security.AuthenticatedUser;
+import com.expensetracker.service.ExpenseAnalyticsService;
 import com.expensetracker.service.ExpenseService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -21,14 +27,15 @@ import java.util.Map;
 public class SummaryController {
 
     private final ExpenseService expenseService;
+    private final ExpenseAnalyticsService expenseAnalyticsService;
 
     @GetMapping("/total")
     public ResponseEntity<Map<String, Object>> getTotalExpenses(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        String username = authentication.getName();
-        BigDecimal total = expenseService.getTotalExpenses(username, startDate, endDate);
+        Long userId = principal.getId();
+        BigDecimal total = expenseService.getTotalExpenses(userId, startDate, endDate);
         Map<String, Object> response = new HashMap<>();
         response.put("total", total);
         response.put("startDate", startDate);
@@ -38,19 +45,40 @@ public class SummaryController {
 
     @GetMapping("/by-category")
     public ResponseEntity<List<CategorySummaryDTO>> getCategorySummary(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        String username = authentication.getName();
-        return ResponseEntity.ok(expenseService.getCategorySummary(username, startDate, endDate));
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.getCategorySummary(userId, startDate, endDate));
     }
 
     @GetMapping("/monthly")
     public ResponseEntity<List<MonthlySummaryDTO>> getMonthlySummary(
-            Authentication authentication,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        String username = authentication.getName();
-        return ResponseEntity.ok(expenseService.getMonthlySummary(username, startDate, endDate));
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseService.getMonthlySummary(userId, startDate, endDate));
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<DailySeriesDTO> getDailySeries(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean byCategory) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseAnalyticsService.getDailySeries(userId, startDate, endDate, byCategory));
+    }
+
+    /**
+     * Compares several periods at once (e.g. this month, last month, same month last year) against the first.
+     */
+    @PostMapping("/compare")
+    public ResponseEntity<List<PeriodComparisonDTO>> comparePeriods(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody ComparisonRequest request) {
+        Long userId = principal.getId();
+        return ResponseEntity.ok(expenseAnalyticsService.comparePeriods(userId, request));
     }
 }
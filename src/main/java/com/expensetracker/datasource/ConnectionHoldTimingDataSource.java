@@ -0,0 +1,111 @@
+package com.expensetracker.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each pooled connection is held, from checkout to close, as the
+ * {@code datasource.connection.hold} timer tagged with the call site: the transaction that checked it out
+ * (e.g. {@code ExportService.countRows}), {@code unnamed} for programmatic transactions without a name, or
+ * {@code none} outside transactions.
+ * <p>
+ * Meant to sit under a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, where checkout
+ * happens at the first statement, after the transaction name has been set.
+ */
+public class ConnectionHoldTimingDataSource extends DelegatingDataSource {
+
+    private static final String METER = "datasource.connection.hold";
+
+    // Resolved on first use: the registry's own binders look up data sources, so it cannot be created with this one
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ConnectionHoldTimingDataSource(DataSource targetDataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionHoldTimingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new HeldConnection(connection, timer(callSite())));
+    }
+
+    private Timer timer(String site) {
+        return timers.computeIfAbsent(site, key -> Timer.builder(METER)
+                .description("Time a pooled connection is held between checkout and close")
+                .tag("site", key)
+                .publishPercentileHistogram()
+                .register(meterRegistry.getObject()));
+    }
+
+    private static String callSite() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return "none";
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null) {
+            return "unnamed";
+        }
+        // Declarative transactions are named after the fully qualified method; keep the class and method
+        int methodDot = name.lastIndexOf('.');
+        int classDot = methodDot > 0 ? name.lastIndexOf('.', methodDot - 1) : -1;
+        return name.substring(classDot + 1);
+    }
+
+    private static final class HeldConnection implements InvocationHandler {
+
+        private final Connection target;
+        private final Timer timer;
+        private final long checkedOutAt = System.nanoTime();
+        private boolean closed;
+
+        private HeldConnection(Connection target, Timer timer) {
+            this.target = target;
+            this.timer = timer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("close") && !closed) {
+                closed = true;
+                timer.record(System.nanoTime() - checkedOutAt, TimeUnit.NANOSECONDS);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.expensetracker.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica and everything else to the primary.
+ * A user whose read-write transaction committed within the read-your-writes window keeps reading from the
+ * primary, so replication lag never hides their own changes. A replica that fails a connection or a health
+ * check is skipped until a later health check succeeds; with no healthy replica, reads fall back to the primary.
+ * <p>
+ * The transaction's read-only flag is only set after it has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public enum Strategy { ROUND_ROBIN, LEAST_LOADED }
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Strategy strategy;
+    private final long readYourWritesWindowNanos;
+    // User id to System.nanoTime() of their last committed read-write transaction
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryConnections;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaDataSources,
+                                    Strategy strategy, long readYourWritesWindowMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.strategy = strategy;
+        this.readYourWritesWindowNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesWindowMillis);
+        this.primaryConnections = connectionCounter(meterRegistry, primary.getPoolName());
+        for (HikariDataSource dataSource : replicaDataSources) {
+            Replica replica = new Replica(dataSource, connectionCounter(meterRegistry, dataSource.getPoolName()));
+            Gauge.builder("datasource.replica.up", replica, r -> r.up ? 1 : 0)
+                    .tag("replica", dataSource.getPoolName())
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.connections.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        Connection connection = primary.getConnection();
+        primaryConnections.increment();
+        trackWrite();
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Routed connections always use the configured credentials");
+    }
+
+    /**
+     * Validates every replica, bringing recovered ones back into rotation, and forgets writes older than the
+     * read-your-writes window.
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-interval:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(new SQLException("Connection validation failed"));
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt >= readYourWritesWindowNanos);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private Replica selectReplica() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        Long userId = RoutingContext.currentUserId();
+        if (userId == null || wroteRecently(userId)) {
+            return null;
+        }
+        return strategy == Strategy.LEAST_LOADED ? leastLoaded() : roundRobin();
+    }
+
+    private Replica roundRobin() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.up) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica leastLoaded() {
+        Replica selected = null;
+        int selectedActive = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            if (!replica.up) {
+                continue;
+            }
+            // The pool bean is only available once the pool has started
+            HikariPoolMXBean pool = replica.dataSource.getHikariPoolMXBean();
+            int active = pool != null ? pool.getActiveConnections() : 0;
+            if (active < selectedActive) {
+                selected = replica;
+                selectedActive = active;
+            }
+        }
+        return selected;
+    }
+
+    private boolean wroteRecently(Long userId) {
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt < readYourWritesWindowNanos;
+    }
+
+    // Any read-write transaction counts as a write; the window starts when it commits
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        Long userId = RoutingContext.currentUserId();
+        if (userId == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(userId, System.nanoTime());
+            }
+        });
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing.connections").tag("target", target).register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private final Counter connections;
+        private volatile boolean up = true;
+
+        private Replica(HikariDataSource dataSource, Counter connections) {
+            this.dataSource = dataSource;
+            this.connections = connections;
+        }
+
+        private void markUp() {
+            if (!up) {
+                log.info("Replica {} is healthy again", dataSource.getPoolName());
+                up = true;
+            }
+        }
+
+        private void markDown(SQLException e) {
+            if (up) {
+                log.warn("Replica {} is unavailable, reading from the primary until it recovers: {}",
+                        dataSource.getPoolName(), e.getMessage());
+                up = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.expensetracker.datasource;
+
+import com.expensetracker.security.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The user a unit of work reads for, which decides whether its read-only transactions may use a replica.
+ * Request threads take it from the security context; background work done for a user sets it with
+ * {@link #callAs}. Work without a user always reads from the primary.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Long> USER_ID = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    /**
+     * Runs {@code work} on behalf of {@code userId}, restoring the previous user afterwards.
+     */
+    public static <T> T callAs(Long userId, Callable<T> work) throws Exception {
+        Long previous = USER_ID.get();
+        USER_ID.set(userId);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                USER_ID.remove();
+            } else {
+                USER_ID.set(previous);
+            }
+        }
+    }
+
+    public static Long currentUserId() {
+        Long userId = USER_ID.get();
+        if (userId != null) {
+            return userId;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? user.getId()
+                : null;
+    }
+}
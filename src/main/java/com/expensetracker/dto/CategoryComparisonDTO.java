@@ -0,0 +1,20 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryComparisonDTO {
+
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal totalAmount;
+    private Long expenseCount;
+    private Double percentage;
+    private BigDecimal deltaAmount;
+}
@@ -0,0 +1,30 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Periods to compare; the first one is the base the others are measured against. Each period also gets the
+ * average monthly spend over the {@code rollingMonths} months ending on its end date.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComparisonRequest {
+
+    @NotEmpty(message = "At least one period is required")
+    @Size(max = 12, message = "At most 12 periods can be compared")
+    private List<@Valid DateRangeDTO> periods;
+
+    @Min(value = 1, message = "Rolling window must be at least 1 month")
+    @Max(value = 24, message = "Rolling window must be at most 24 months")
+    private Integer rollingMonths;
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySeriesDTO {
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal totalAmount;
+    private Long expenseCount;
+    private List<DailySummaryDTO> days;
+}
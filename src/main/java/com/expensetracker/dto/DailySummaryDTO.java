@@ -0,0 +1,21 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySummaryDTO {
+
+    private LocalDate date;
+    private BigDecimal totalAmount;
+    private Long expenseCount;
+    // Category id to amount for categories with spending that day; null unless the split was requested
+    private Map<Long, BigDecimal> categories;
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects expenses either by explicit ids or by filter, never both. The patch is only used by batch updates.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchRequest {
+
+    private List<Long> ids;
+
+    private ExpenseFilterDTO filter;
+
+    @Valid
+    private ExpensePatchDTO patch;
+}
@@ -1,5 +1,6 @@
 package com.expensetracker.dto;
 
+import com.expensetracker.validation.ExpenseDate;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -25,10 +26,22 @@ public class ExpenseDTO {
     private BigDecimal amount;
 
     @NotNull(message = "Date is required")
+    @ExpenseDate
     private LocalDate date;
 
     @NotNull(message = "Category ID is required")
     private Long categoryId;
 
     private String categoryName;
+
+    /**
+     * Constructor-expression target for projection queries; the category name is filled in afterwards.
+     */
+    public ExpenseDTO(Long id, String description, BigDecimal amount, LocalDate date, Long categoryId) {
+        this.id = id;
+        this.description = description;
+        this.amount = amount;
+        this.date = date;
+        this.categoryId = categoryId;
+    }
 }
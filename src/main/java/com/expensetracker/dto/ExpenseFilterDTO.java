@@ -0,0 +1,28 @@
+package com.expensetracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Selects a user's expenses for a batch operation. A filter without any criterion only selects every expense
+ * when {@code all} is set, so an empty filter cannot wipe an account by accident.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseFilterDTO {
+
+    private Long categoryId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean all;
+
+    @JsonIgnore
+    public boolean hasCriteria() {
+        return categoryId != null || startDate != null || endDate != null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePageDTO {
+
+    private List<ExpenseDTO> content;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.validation.ExpenseDate;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fields to set on every selected expense; {@code null} fields are left unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePatchDTO {
+
+    @Size(min = 2, max = 255, message = "Description must be between 2 and 255 characters")
+    private String description;
+
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 10, fraction = 2, message = "Amount must have at most 10 digits and 2 decimal places")
+    private BigDecimal amount;
+
+    @ExpenseDate
+    private LocalDate date;
+
+    private Long categoryId;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return description == null && amount == null && date == null && categoryId == null;
+    }
+}
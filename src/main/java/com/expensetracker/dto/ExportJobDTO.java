@@ -0,0 +1,25 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ExportFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDTO {
+
+    private String id;
+    private ExportFormat format;
+    private String status;
+    private long rowsWritten;
+    private long totalRows;
+    private Long sizeBytes;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+    private String error;
+}
@@ -0,0 +1,25 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.model.ImportMode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportResultDTO {
+
+    private ImportMode mode;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+    // Set when more rows failed than the error list keeps
+    private boolean errorsTruncated;
+
+    public ImportResultDTO(ImportMode mode) {
+        this.mode = mode;
+    }
+}
@@ -0,0 +1,30 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One compared period. Deltas are the change from this period to the base (first) period, so they are
+ * {@code null} on the base itself; {@code deltaPercent} is also {@code null} when this period's total is zero.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodComparisonDTO {
+
+    private String label;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal totalAmount;
+    private Long expenseCount;
+    private BigDecimal dailyAverage;
+    private BigDecimal rollingMonthlyAverage;
+    private BigDecimal deltaAmount;
+    private Double deltaPercent;
+    private List<CategoryComparisonDTO> categories;
+}
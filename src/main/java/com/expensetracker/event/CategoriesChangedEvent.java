@@ -0,0 +1,7 @@
+package com.expensetracker.event;
+
+/**
+ * Published by category write paths; listeners holding category data should reload after commit.
+ */
+public class CategoriesChangedEvent {
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published by write paths whenever a user's expenses are created, updated or deleted.
+ * Listeners that cache derived data should react after the surrounding transaction commits.
+ * Single-expense writes also describe their effect as {@link DailyDelta}s so caches can be patched in place;
+ * when {@code deltas} is {@code null} the change is unknown and derived data must be rebuilt.
+ */
+@Data
+@AllArgsConstructor
+public class ExpensesChangedEvent {
+
+    private Long userId;
+    private List<DailyDelta> deltas;
+
+    public ExpensesChangedEvent(Long userId) {
+        this(userId, null);
+    }
+
+    /**
+     * Change of one day's total and count in one category; negative for removals.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class DailyDelta {
+        private final LocalDate date;
+        private final Long categoryId;
+        private final BigDecimal amount;
+        private final int count;
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensetracker.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@code ExpenseRepository} call as {@code repository.queries} and records the number of rows
+ * returned by list and single-row queries as {@code repository.query.rows}, both tagged with the method.
+ * Calls slower than {@code metrics.slow-query.threshold-ms} are logged.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RepositoryMetricsAspect {
+
+    private static final String REPOSITORY = "ExpenseRepository";
+
+    private final MeterRegistry registry;
+    // Built once per method and outcome, so a call does not build and look up its meters
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    @Value("${metrics.slow-query.threshold-ms:500}")
+    private long slowQueryThresholdMs;
+
+    @Around("execution(* com.expensetracker.repository.ExpenseRepository+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            Object result = joinPoint.proceed();
+            recordRows(method, result);
+            return result;
+        } catch (Throwable e) {
+            failed = true;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(method, failed).record(elapsed, TimeUnit.NANOSECONDS);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            if (elapsedMs >= slowQueryThresholdMs) {
+                log.warn("Slow query: ExpenseRepository.{} took {} ms", method, elapsedMs);
+            }
+        }
+    }
+
+    private void recordRows(String method, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else {
+            // Streams are counted by their consumers; scalars and counts are not row sets
+            return;
+        }
+        rowSummaries.computeIfAbsent(method, key -> DistributionSummary.builder("repository.query.rows")
+                .tag("repository", REPOSITORY)
+                .tag("method", key)
+                .register(registry))
+                .record(rows);
+    }
+
+    private Timer timer(String method, boolean failed) {
+        String outcome = failed ? "error" : "success";
+        return (failed ? errorTimers : successTimers).computeIfAbsent(method, key -> Timer.builder("repository.queries")
+                .tag("repository", REPOSITORY)
+                .tag("method", key)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
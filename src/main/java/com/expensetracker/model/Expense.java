@@ -13,7 +13,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+        // Listings, keyset pages and exports: per-user range scans in (date DESC, id DESC) order
+        @Index(name = "idx_expenses_user_date_id", columnList = "user_id, date DESC, id"),
+        // Category-filtered listings and per-category summaries
+        @Index(name = "idx_expenses_user_category_date", columnList = "user_id, category_id, date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,7 +43,8 @@ public class Expense {
     @Column(nullable = false)
     private LocalDate date;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: read paths take the category name from CategoryDictionary, so only the id is needed
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     @NotNull(message = "Category is required")
     private Category category;
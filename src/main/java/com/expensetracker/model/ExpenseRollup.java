@@ -0,0 +1,52 @@
+package com.expensetracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-user monthly total and count of expenses in one category, maintained alongside expense writes.
+ */
+@Entity
+@Table(name = "expense_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_expense_rollups_user_period_category",
+        columnNames = {"user_id", "period_year", "period_month", "category_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "period_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer month;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+
+    public ExpenseRollup(Long userId, Integer year, Integer month, Long categoryId, BigDecimal totalAmount, Long expenseCount) {
+        this.userId = userId;
+        this.year = year;
+        this.month = month;
+        this.categoryId = categoryId;
+        this.totalAmount = totalAmount;
+        this.expenseCount = expenseCount;
+    }
+}
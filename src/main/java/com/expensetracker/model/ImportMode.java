@@ -0,0 +1,10 @@
+package com.expensetracker.model;
+
+public enum ImportMode {
+
+    /** Any invalid or failing row rolls back the whole import. */
+    ALL_OR_NOTHING,
+
+    /** Valid rows are kept; invalid or failing rows are skipped and reported. */
+    BEST_EFFORT
+}
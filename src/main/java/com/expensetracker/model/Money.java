@@ -0,0 +1,56 @@
+package com.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Arithmetic on amounts held as {@code long} minor units (cents). Stored amounts have two decimals, so
+ * sums, averages and percentages done here give the same results as the {@code BigDecimal} equivalents
+ * without allocating per operation. Amounts are converted back with {@link #toBigDecimal} only for responses.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        // Scale 0 keeps longValueExact on its compact path, without the BigInteger that unscaledValue() creates
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * {@code part} as a percentage of {@code total}, rounded half-up to two decimals; 0 when the total is not
+     * positive. Matches {@code part.divide(total, 4, HALF_UP).multiply(100).doubleValue()}.
+     */
+    public static double percentage(long part, long total) {
+        if (total <= 0) {
+            return 0.0;
+        }
+        if (Math.abs(part) > Long.MAX_VALUE / 10_000L) {
+            return BigDecimal.valueOf(part).divide(BigDecimal.valueOf(total), 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100))
+                    .doubleValue();
+        }
+        // Basis points, i.e. the ratio to four decimals
+        return divide(part * 10_000L, total) / 100.0;
+    }
+
+    /**
+     * {@code dividend / divisor} rounded half-up (away from zero on ties), e.g. an average in minor units.
+     */
+    public static long divide(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // Compare 2 * |remainder| with |divisor| without overflowing
+        if (Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
@@ -38,6 +38,10 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    // Tokens carrying an older version are rejected; bumped by "log out everywhere"
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,56 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Messages are claimed with a conditional update, so only one worker (or instance) wins each message. The
+ * lease end set by the claim identifies that claim: an outcome is only written while it is unchanged.
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    Optional<EmailOutboxMessage> findByTrackingIdAndUserId(String trackingId, Long userId);
+
+    @Query("SELECT m.id FROM EmailOutboxMessage m WHERE m.status IN :statuses AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.nextAttemptAt, m.id")
+    List<Long> findDueIds(
+            @Param("statuses") Collection<EmailOutboxMessage.Status> statuses,
+            @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :claimed, m.attempts = m.attempts + 1, " +
+           "m.nextAttemptAt = :leaseUntil, m.updatedAt = :now " +
+           "WHERE m.id = :id AND m.status IN :statuses AND m.nextAttemptAt <= :now")
+    int claim(
+            @Param("id") Long id,
+            @Param("statuses") Collection<EmailOutboxMessage.Status> statuses,
+            @Param("claimed") EmailOutboxMessage.Status claimed,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, " +
+           "m.lastError = :lastError, m.sentAt = :sentAt, m.updatedAt = :now " +
+           "WHERE m.id = :id AND m.status = :claimed AND m.nextAttemptAt = :leaseUntil")
+    int recordOutcome(
+            @Param("id") Long id,
+            @Param("claimed") EmailOutboxMessage.Status claimed,
+            @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("status") EmailOutboxMessage.Status status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("now") LocalDateTime now);
+}
@@ -1,19 +1,22 @@
 package com.expensetracker.repository;
 
 import com.expensetracker.model.Expense;
-import com.expensetracker.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense>,
+        ExpenseRepositoryCustom {
 
     List<Expense> findByCategoryId(Long categoryId);
 
@@ -22,20 +25,9 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByCategoryIdAndDateBetween(Long categoryId, LocalDate startDate, LocalDate endDate);
 
     // User-filtered queries
-    List<Expense> findByUserOrderByDateDesc(User user);
+    List<Expense> findByUserIdOrderByDateDesc(Long userId);
 
-    Optional<Expense> findByIdAndUser(Long id, User user);
-
-    @Query("SELECT e FROM Expense e WHERE e.user = :user AND " +
-           "(:categoryId IS NULL OR e.category.id = :categoryId) AND " +
-           "(:startDate IS NULL OR e.date >= :startDate) AND " +
-           "(:endDate IS NULL OR e.date <= :endDate) " +
-           "ORDER BY e.date DESC")
-    List<Expense> findWithFiltersByUser(
-            @Param("user") User user,
-            @Param("categoryId") Long categoryId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
+    Optional<Expense> findByIdAndUserId(Long id, Long userId);
 
     @Query("SELECT e FROM Expense e WHERE " +
            "(:categoryId IS NULL OR e.category.id = :categoryId) AND " +
@@ -47,11 +39,11 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT SUM(e.amount) FROM Expense e WHERE e.user = :user AND " +
-           "(:startDate IS NULL OR e.date >= :startDate) AND " +
-           "(:endDate IS NULL OR e.date <= :endDate)")
+    // The per-user aggregates below serve the partial-month edges of a rollup range, which are always bounded
+    @Query("SELECT SUM(e.amount) FROM Expense e WHERE e.user.id = :userId AND " +
+           "e.date BETWEEN :startDate AND :endDate")
     BigDecimal getTotalAmountByUser(
-            @Param("user") User user,
+            @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
@@ -63,13 +55,12 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
             @Param("endDate") LocalDate endDate);
 
     @Query("SELECT e.category.id, e.category.name, SUM(e.amount), COUNT(e) FROM Expense e " +
-           "WHERE e.user = :user AND " +
-           "(:startDate IS NULL OR e.date >= :startDate) AND " +
-           "(:endDate IS NULL OR e.date <= :endDate) " +
+           "WHERE e.user.id = :userId AND " +
+           "e.date BETWEEN :startDate AND :endDate " +
            "GROUP BY e.category.id, e.category.name " +
            "ORDER BY SUM(e.amount) DESC")
     List<Object[]> getCategorySummaryByUser(
-            @Param("user") User user,
+            @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
@@ -83,13 +74,12 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
             @Param("endDate") LocalDate endDate);
 
     @Query("SELECT YEAR(e.date), MONTH(e.date), SUM(e.amount), COUNT(e) FROM Expense e " +
-           "WHERE e.user = :user AND " +
-           "(:startDate IS NULL OR e.date >= :startDate) AND " +
-           "(:endDate IS NULL OR e.date <= :endDate) " +
+           "WHERE e.user.id = :userId AND " +
+           "e.date BETWEEN :startDate AND :endDate " +
            "GROUP BY YEAR(e.date), MONTH(e.date) " +
            "ORDER BY YEAR(e.date) DESC, MONTH(e.date) DESC")
     List<Object[]> getMonthlySummaryByUser(
-            @Param("user") User user,
+            @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
@@ -102,5 +92,26 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT e.date, e.category.id, SUM(e.amount), COUNT(e) FROM Expense e " +
+           "WHERE e.user.id = :userId GROUP BY e.date, e.category.id")
+    List<Object[]> getDailyCategoryTotalsByUser(@Param("userId") Long userId);
+
+    @Query("SELECT YEAR(e.date), MONTH(e.date), e.category.id, SUM(e.amount), COUNT(e) FROM Expense e " +
+           "WHERE e.user.id = :userId " +
+           "GROUP BY YEAR(e.date), MONTH(e.date), e.category.id")
+    List<Object[]> getMonthlyCategoryTotalsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT YEAR(e.date), MONTH(e.date), e.category.id, SUM(e.amount), COUNT(e) FROM Expense e " +
+           "WHERE e.user.id = :userId AND e.id IN :ids " +
+           "GROUP BY YEAR(e.date), MONTH(e.date), e.category.id")
+    List<Object[]> getMonthlyCategoryTotalsByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    int deleteByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT e.user.id FROM Expense e")
+    List<Long> findDistinctUserIds();
+
     boolean existsByCategoryId(Long categoryId);
 }
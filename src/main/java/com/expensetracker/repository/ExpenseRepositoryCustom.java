@@ -0,0 +1,51 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.model.Expense;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Specification-based reads that {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}
+ * cannot express: row projections with or without a limit, id projections,
+ * multi-range aggregates and set-based updates.
+ * <p>
+ * Row reads select only the expense columns into {@link ExpenseDTO} instead of hydrating entities, so nothing
+ * is added to the persistence context. {@code categoryName} is left {@code null} for the caller to fill in.
+ */
+public interface ExpenseRepositoryCustom {
+
+    /**
+     * All matching rows in (date DESC, id DESC) order.
+     */
+    List<ExpenseDTO> findRows(Specification<Expense> spec);
+
+    /**
+     * Up to {@code limit} matching rows in (date DESC, id DESC) order.
+     */
+    List<ExpenseDTO> findRows(Specification<Expense> spec, int limit);
+
+    /**
+     * Ids of all matching rows, in no particular order.
+     */
+    List<Long> findIds(Specification<Expense> spec);
+
+    /**
+     * Per-category sums and counts for each of {@code ranges} (inclusive {@code [start, end]} pairs, which may
+     * overlap), from one scan of the user's expenses over the union of the ranges. Each row is the category id
+     * followed by a sum and a count per range, in range order; only categories with expenses in some range
+     * are returned.
+     */
+    List<Object[]> sumByCategoryInRanges(Long userId, List<LocalDate[]> ranges);
+
+    /**
+     * Set-based update of the given user's expenses among {@code ids}; {@code null} values are left unchanged.
+     * Returns the number of rows updated.
+     */
+    int updateByIds(Long userId, Collection<Long> ids, String description, BigDecimal amount, LocalDate date,
+                    Long categoryId);
+}
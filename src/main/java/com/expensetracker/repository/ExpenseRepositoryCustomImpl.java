@@ -0,0 +1,115 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ExpenseDTO> findRows(Specification<Expense> spec) {
+        return entityManager.createQuery(selectRows(spec)).getResultList();
+    }
+
+    @Override
+    public List<ExpenseDTO> findRows(Specification<Expense> spec, int limit) {
+        return entityManager.createQuery(selectRows(spec))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Expense> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Expense> root = query.from(Expense.class);
+        query.select(root.get("id"));
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Object[]> sumByCategoryInRanges(Long userId, List<LocalDate[]> ranges) {
+        // Conditional aggregation: one CASE-filtered SUM per range instead of one query per range
+        StringBuilder jpql = new StringBuilder("SELECT e.category.id");
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < ranges.size(); i++) {
+            String inRange = "e.date BETWEEN :start" + i + " AND :end" + i;
+            jpql.append(", SUM(CASE WHEN ").append(inRange).append(" THEN e.amount ELSE 0 END)")
+                    .append(", SUM(CASE WHEN ").append(inRange).append(" THEN 1 ELSE 0 END)");
+            LocalDate[] range = ranges.get(i);
+            from = from == null || range[0].isBefore(from) ? range[0] : from;
+            to = to == null || range[1].isAfter(to) ? range[1] : to;
+        }
+        jpql.append(" FROM Expense e WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to GROUP BY e.category.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("userId", userId)
+                .setParameter("from", from)
+                .setParameter("to", to);
+        for (int i = 0; i < ranges.size(); i++) {
+            query.setParameter("start" + i, ranges.get(i)[0]);
+            query.setParameter("end" + i, ranges.get(i)[1]);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public int updateByIds(Long userId, Collection<Long> ids, String description, BigDecimal amount, LocalDate date,
+                           Long categoryId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Expense> update = cb.createCriteriaUpdate(Expense.class);
+        Root<Expense> root = update.from(Expense.class);
+        if (description != null) {
+            update.set(root.<String>get("description"), description);
+        }
+        if (amount != null) {
+            update.set(root.<BigDecimal>get("amount"), amount);
+        }
+        if (date != null) {
+            update.set(root.<LocalDate>get("date"), date);
+        }
+        if (categoryId != null) {
+            update.set(root.<Category>get("category"), entityManager.getReference(Category.class, categoryId));
+        }
+        // Bulk statements bypass @UpdateTimestamp
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(cb.equal(root.get("user").get("id"), userId), root.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private CriteriaQuery<ExpenseDTO> selectRows(Specification<Expense> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExpenseDTO> query = cb.createQuery(ExpenseDTO.class);
+        Root<Expense> root = query.from(Expense.class);
+        // category.id resolves to the category_id column, so no join to categories is emitted
+        query.select(cb.construct(ExpenseDTO.class, root.get("id"), root.get("description"), root.get("amount"),
+                root.get("date"), root.get("category").get("id")));
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(ExpenseSpecifications.NEWEST_FIRST, root, cb));
+        return query;
+    }
+}
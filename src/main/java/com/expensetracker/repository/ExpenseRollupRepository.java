@@ -0,0 +1,68 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.ExpenseRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Periods are addressed as {@code year * 12 + month - 1} so a month range is a single BETWEEN.
+ */
+@Repository
+public interface ExpenseRollupRepository extends JpaRepository<ExpenseRollup, Long>, ExpenseRollupRepositoryCustom {
+
+    List<ExpenseRollup> findByUserId(Long userId);
+
+    @Modifying
+    @Query("UPDATE ExpenseRollup r SET r.totalAmount = r.totalAmount + :amount, r.expenseCount = r.expenseCount + :count " +
+           "WHERE r.userId = :userId AND r.year = :year AND r.month = :month AND r.categoryId = :categoryId")
+    int applyDelta(
+            @Param("userId") Long userId,
+            @Param("year") Integer year,
+            @Param("month") Integer month,
+            @Param("categoryId") Long categoryId,
+            @Param("amount") BigDecimal amount,
+            @Param("count") Long count);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseRollup r WHERE r.userId = :userId AND r.year = :year AND r.month = :month " +
+           "AND r.categoryId = :categoryId AND r.expenseCount <= 0")
+    int deleteIfEmpty(
+            @Param("userId") Long userId,
+            @Param("year") Integer year,
+            @Param("month") Integer month,
+            @Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT SUM(r.totalAmount) FROM ExpenseRollup r WHERE r.userId = :userId AND " +
+           "(r.year * 12 + r.month - 1) BETWEEN :fromPeriod AND :toPeriod")
+    BigDecimal getTotalAmount(
+            @Param("userId") Long userId,
+            @Param("fromPeriod") Integer fromPeriod,
+            @Param("toPeriod") Integer toPeriod);
+
+    @Query("SELECT r.categoryId, c.name, SUM(r.totalAmount), SUM(r.expenseCount) FROM ExpenseRollup r " +
+           "JOIN Category c ON c.id = r.categoryId " +
+           "WHERE r.userId = :userId AND (r.year * 12 + r.month - 1) BETWEEN :fromPeriod AND :toPeriod " +
+           "GROUP BY r.categoryId, c.name")
+    List<Object[]> getCategorySummary(
+            @Param("userId") Long userId,
+            @Param("fromPeriod") Integer fromPeriod,
+            @Param("toPeriod") Integer toPeriod);
+
+    @Query("SELECT r.year, r.month, SUM(r.totalAmount), SUM(r.expenseCount) FROM ExpenseRollup r " +
+           "WHERE r.userId = :userId AND (r.year * 12 + r.month - 1) BETWEEN :fromPeriod AND :toPeriod " +
+           "GROUP BY r.year, r.month")
+    List<Object[]> getMonthlySummary(
+            @Param("userId") Long userId,
+            @Param("fromPeriod") Integer fromPeriod,
+            @Param("toPeriod") Integer toPeriod);
+}
@@ -0,0 +1,15 @@
+package com.expensetracker.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Rollup writes that need database-specific SQL.
+ */
+public interface ExpenseRollupRepositoryCustom {
+
+    /**
+     * Adds {@code amount} and {@code count} to a bucket, creating it when it does not exist yet, in a single
+     * statement, so two transactions writing the first expense of a bucket at once cannot both insert it.
+     */
+    void upsertDelta(Long userId, Integer year, Integer month, Long categoryId, BigDecimal amount, Long count);
+}
@@ -0,0 +1,53 @@
+package com.expensetracker.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.math.BigDecimal;
+
+public class ExpenseRollupRepositoryCustomImpl implements ExpenseRollupRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO expense_rollups (user_id, period_year, period_month, category_id, total_amount, expense_count) " +
+            "VALUES (:userId, :year, :month, :categoryId, :amount, :count) " +
+            "ON CONFLICT (user_id, period_year, period_month, category_id) DO UPDATE SET " +
+            "total_amount = expense_rollups.total_amount + EXCLUDED.total_amount, " +
+            "expense_count = expense_rollups.expense_count + EXCLUDED.expense_count";
+
+    // Standard MERGE for H2, which has no ON CONFLICT outside its PostgreSQL compatibility mode
+    private static final String MERGE_UPSERT =
+            "MERGE INTO expense_rollups r USING (SELECT CAST(:userId AS BIGINT) AS user_id, " +
+            "CAST(:year AS INTEGER) AS period_year, CAST(:month AS INTEGER) AS period_month, " +
+            "CAST(:categoryId AS BIGINT) AS category_id, CAST(:amount AS NUMERIC(14, 2)) AS total_amount, " +
+            "CAST(:count AS BIGINT) AS expense_count) d " +
+            "ON r.user_id = d.user_id AND r.period_year = d.period_year AND r.period_month = d.period_month " +
+            "AND r.category_id = d.category_id " +
+            "WHEN MATCHED THEN UPDATE SET total_amount = r.total_amount + d.total_amount, " +
+            "expense_count = r.expense_count + d.expense_count " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, period_year, period_month, category_id, total_amount, expense_count) " +
+            "VALUES (d.user_id, d.period_year, d.period_month, d.category_id, d.total_amount, d.expense_count)";
+
+    private final EntityManager entityManager;
+    private final String upsertSql;
+
+    public ExpenseRollupRepositoryCustomImpl(EntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.entityManager = entityManager;
+        boolean postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        this.upsertSql = postgres ? POSTGRES_UPSERT : MERGE_UPSERT;
+    }
+
+    @Override
+    public void upsertDelta(Long userId, Integer year, Integer month, Long categoryId, BigDecimal amount, Long count) {
+        entityManager.createNativeQuery(upsertSql)
+                .setParameter("userId", userId)
+                .setParameter("year", year)
+                .setParameter("month", month)
+                .setParameter("categoryId", categoryId)
+                .setParameter("amount", amount)
+                .setParameter("count", count)
+                .executeUpdate();
+    }
+}
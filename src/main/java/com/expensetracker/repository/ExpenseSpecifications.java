@@ -0,0 +1,65 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.Expense;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Filter predicates for expense queries. Optional filters return {@code null} when not supplied, so a
+ * composed query only contains the conditions actually requested and the planner can use an index
+ * range on {@code (user_id, date)} instead of one generic {@code :param IS NULL OR ...} plan.
+ */
+public final class ExpenseSpecifications {
+
+    /** The (date DESC, id DESC) order shared by listings, keyset pages and exports. */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> filter(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate) {
+        return Specification.where(ownedBy(userId))
+                .and(inCategory(categoryId))
+                .and(onOrAfter(startDate))
+                .and(onOrBefore(endDate));
+    }
+
+    public static Specification<Expense> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Expense> inCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Expense> onOrAfter(LocalDate startDate) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), startDate);
+    }
+
+    public static Specification<Expense> onOrBefore(LocalDate endDate) {
+        if (endDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), endDate);
+    }
+
+    /**
+     * Rows strictly after the keyset position in {@link #NEWEST_FIRST} order.
+     */
+    public static Specification<Expense> after(LocalDate afterDate, Long afterId) {
+        if (afterDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), afterDate),
+                cb.and(cb.equal(root.get("date"), afterDate), cb.lessThan(root.get("id"), afterId)));
+    }
+}
@@ -1,10 +1,14 @@
 package com.expensetracker.security;
 
+import com.expensetracker.security.JwtTokenCache.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,13 +18,40 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final String[] RESULTS = {"cached", "verified", "revoked", "invalid"};
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final JwtTokenCache tokenCache;
+    private final TokenRevocationRegistry revocationRegistry;
+    // Registered up front, one per result, so timing a request does not build and look up a meter
+    private final Map<String, Timer> validationTimers;
+
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    public JwtAuthFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService, JwtTokenCache tokenCache,
+                         TokenRevocationRegistry revocationRegistry, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.revocationRegistry = revocationRegistry;
+        Map<String, Timer> timers = new HashMap<>();
+        for (String result : RESULTS) {
+            timers.put(result, Timer.builder("jwt.validation")
+                    .tag("result", result)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.validationTimers = Map.copyOf(timers);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -31,7 +62,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,27 +69,59 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        
-        try {
-            username = jwtUtil.extractUsername(jwt);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            long start = System.nanoTime();
+            String result = "invalid";
+            try {
+                VerifiedToken verified = tokenCache.get(jwt);
+                boolean cached = verified != null;
+                if (!cached) {
+                    verified = verify(jwt);
+                }
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (verified != null && revocationRegistry.isRevoked(verified.getPrincipal().getId(), verified.getTokenVersion())) {
+                    result = "revoked";
+                } else if (verified != null) {
+                    result = cached ? "cached" : "verified";
+                    AuthenticatedUser principal = verified.getPrincipal();
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
+            } catch (Exception e) {
+                // Invalid token - continue without authentication
+            } finally {
+                validationTimers.get(result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
-        } catch (Exception e) {
-            // Invalid token - continue without authentication
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Parses and verifies the token once, resolves its principal and remembers the result. In stateless
+     * mode the principal comes from the claims; otherwise, or for tokens without a user id claim, it is
+     * loaded from the database.
+     */
+    private VerifiedToken verify(String jwt) {
+        Claims claims = jwtUtil.parseClaims(jwt);
+        AuthenticatedUser principal = stateless ? jwtUtil.principalFromClaims(claims) : null;
+        if (principal == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            if (!(userDetails instanceof AuthenticatedUser loaded) || !jwtUtil.validateClaims(claims, loaded)) {
+                return null;
+            }
+            loaded.eraseCredentials();
+            principal = loaded;
+        }
+
+        VerifiedToken verified = new VerifiedToken(principal, jwtUtil.tokenVersion(claims));
+        tokenCache.put(jwt, verified, claims.getExpiration().getTime());
+        return verified;
+    }
 }
@@ -0,0 +1,103 @@
+package com.expensetracker.security;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU of recently verified tokens, keyed by the SHA-256 of the token so raw tokens are not
+ * kept in memory. A hit skips signature verification and the principal lookup; revocation is
+ * still checked by the caller. Entries live until
+ * the token expires or for at most {@code jwt.cache.ttl}, whichever is sooner.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+    // Guards the access-ordered map; a lock instead of a monitor keeps virtual threads unpinned on contention
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public JwtTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries,
+                         @Value("${jwt.cache.ttl:300000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > JwtTokenCache.this.maxEntries;
+            }
+        };
+    }
+
+    public VerifiedToken get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.token;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String token, VerifiedToken verified, long tokenExpiresAt) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long expiresAt = Math.min(tokenExpiresAt, System.currentTimeMillis() + ttlMillis);
+        String key = hash(token);
+        lock.lock();
+        try {
+            entries.put(key, new Entry(verified, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Principal of a verified token, with the token version needed for revocation checks.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class VerifiedToken {
+        private final AuthenticatedUser principal;
+        private final int tokenVersion;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final VerifiedToken token;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.expensetracker.security;
+
+import com.expensetracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory copy of each user's current token version, so revoked tokens can be rejected without
+ * a database round-trip per request. The table is reloaded periodically to pick up revocations made
+ * on other nodes; revocations made on this node apply immediately. Versions only ever grow, so both
+ * paths merge into the current map and a reload that read the table before a local revocation
+ * committed cannot undo it.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    private final UserRepository userRepository;
+
+    // Users who never revoked their tokens are absent and implicitly at version 0
+    private volatile Map<Long, Integer> versions = Map.of();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:30000}")
+    public void refresh() {
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (Object[] row : userRepository.findTokenVersions()) {
+            loaded.put((Long) row[0], (Integer) row[1]);
+        }
+        merge(loaded);
+    }
+
+    /**
+     * Records a revocation made on this node without waiting for the next refresh.
+     */
+    public void revoke(Long userId, int version) {
+        merge(Map.of(userId, version));
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        return tokenVersion < versions.getOrDefault(userId, 0);
+    }
+
+    // Copy-on-write under the lock so concurrent refreshes and revocations cannot drop each other's updates
+    private synchronized void merge(Map<Long, Integer> update) {
+        Map<Long, Integer> updated = new HashMap<>(versions);
+        update.forEach((userId, version) -> updated.merge(userId, version, Math::max));
+        versions = Map.copyOf(updated);
+    }
+}
@@ -0,0 +1,109 @@
+package com.expensetracker.service;
+
+import com.expensetracker.event.CategoriesChangedEvent;
+import com.expensetracker.model.Category;
+import com.expensetracker.repository.CategoryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-mostly copy of the category table. Readers see an immutable snapshot that is swapped atomically
+ * after category changes commit, periodically to pick up changes from other nodes, and when a lookup
+ * misses. Expense reads and writes resolve category names and validate ids here instead of querying.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryDictionary {
+
+    // Misses reload at most this often, so bad input cannot turn every lookup into a query
+    private static final long MISS_RELOAD_INTERVAL_NANOS = 1_000_000_000L;
+    private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), 0L);
+
+    private final CategoryRepository categoryRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(EMPTY);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${categories.dictionary.refresh-interval:300000}")
+    public void refresh() {
+        Map<Long, String> namesById = new HashMap<>();
+        Map<String, Long> idsByName = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            namesById.put(category.getId(), category.getName());
+            idsByName.put(normalize(category.getName()), category.getId());
+        }
+        snapshot.set(new Snapshot(Map.copyOf(namesById), Map.copyOf(idsByName), System.nanoTime()));
+        log.debug("Loaded {} categories into the dictionary", namesById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Name of the category, or {@code null} if it does not exist.
+     */
+    public String nameOf(Long categoryId) {
+        String name = snapshot.get().namesById.get(categoryId);
+        if (name == null && categoryId != null && reloadOnMiss()) {
+            name = snapshot.get().namesById.get(categoryId);
+        }
+        return name;
+    }
+
+    /**
+     * Id of the category with this name, ignoring case, or {@code null} if there is none.
+     */
+    public Long idOf(String name) {
+        if (name == null) {
+            return null;
+        }
+        Long id = snapshot.get().idsByName.get(normalize(name));
+        if (id == null && reloadOnMiss()) {
+            id = snapshot.get().idsByName.get(normalize(name));
+        }
+        return id;
+    }
+
+    public boolean exists(Long categoryId) {
+        return nameOf(categoryId) != null;
+    }
+
+    public void requireExists(Long categoryId) {
+        if (!exists(categoryId)) {
+            throw new EntityNotFoundException("Category not found with id: " + categoryId);
+        }
+    }
+
+    private boolean reloadOnMiss() {
+        Snapshot current = snapshot.get();
+        if (current != EMPTY && System.nanoTime() - current.loadedAt < MISS_RELOAD_INTERVAL_NANOS) {
+            return false;
+        }
+        refresh();
+        return true;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final Map<Long, String> namesById;
+        private final Map<String, Long> idsByName;
+        private final long loadedAt;
+    }
+}
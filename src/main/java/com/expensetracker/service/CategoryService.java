@@ -1,10 +1,12 @@
 package com.expensetracker.service;
 
+import com.expensetracker.event.CategoriesChangedEvent;
 import com.expensetracker.model.Category;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +19,7 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ExpenseRepository expenseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
@@ -31,7 +34,9 @@ public class CategoryService {
         if (categoryRepository.existsByName(category.getName())) {
             throw new IllegalArgumentException("Category with name '" + category.getName() + "' already exists");
         }
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoriesChangedEvent());
+        return saved;
     }
 
     public Category updateCategory(Long id, Category categoryDetails) {
@@ -43,7 +48,9 @@ public class CategoryService {
         
         category.setName(categoryDetails.getName());
         category.setDescription(categoryDetails.getDescription());
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoriesChangedEvent());
+        return saved;
     }
 
     public void deleteCategory(Long id) {
@@ -54,5 +61,6 @@ public class CategoryService {
         }
         
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoriesChangedEvent());
     }
 }
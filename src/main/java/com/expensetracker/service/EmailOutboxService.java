@@ -0,0 +1,244 @@
+package com.expensetracker.service;
+
+import com.expensetracker.datasource.RoutingContext;
+import com.expensetracker.dto.EmailDeliveryDTO;
+import com.expensetracker.model.EmailOutboxMessage;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.EmailOutboxRepository;
+import com.expensetracker.repository.UserRepository;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable outbox for report emails. Requests only insert a row; a scheduled poller claims due messages,
+ * splits them across the {@code emailOutboxExecutor} workers and each worker sends its share over one SMTP
+ * connection. Failed sends are retried with exponential backoff until {@code email.outbox.max-attempts}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    // SENDING is claimable again once its lease has passed, which recovers messages of a crashed worker
+    private static final List<EmailOutboxMessage.Status> CLAIMABLE =
+            List.of(EmailOutboxMessage.Status.PENDING, EmailOutboxMessage.Status.SENDING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final ExecutorService emailOutboxExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${email.outbox.workers:2}")
+    private int workers;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff:30000}")
+    private long initialBackoff;
+
+    @Value("${email.outbox.max-backoff:3600000}")
+    private long maxBackoff;
+
+    @Value("${email.outbox.lease:300000}")
+    private long lease;
+
+    @Transactional
+    public EmailDeliveryDTO enqueueExpenseReport(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (!emailService.isConfigured()) {
+            throw new IllegalStateException("Email service not configured. Use 'Download Report' instead.");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setTrackingId(UUID.randomUUID().toString());
+        message.setUserId(userId);
+        message.setRecipient(user.getEmail());
+        message.setSubject(emailService.buildSubject(startDate, endDate));
+        message.setStartDate(startDate);
+        message.setEndDate(endDate);
+        message.setStatus(EmailOutboxMessage.Status.PENDING);
+        message.setNextAttemptAt(LocalDateTime.now());
+        return toDTO(outboxRepository.save(message));
+    }
+
+    @Transactional(readOnly = true)
+    public EmailDeliveryDTO getDelivery(Long userId, String trackingId) {
+        return outboxRepository.findByTrackingIdAndUserId(trackingId, userId)
+                .map(this::toDTO)
+                .orElseThrow(() -> new EntityNotFoundException("Email delivery not found with id: " + trackingId));
+    }
+
+    /**
+     * Claims up to {@code email.outbox.batch-size} due messages and waits for the workers to send them,
+     * so a slow relay slows polling down instead of piling up claimed messages.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:2000}")
+    public void processDue() {
+        List<Long> claimedIds = claimDue();
+        if (claimedIds.isEmpty()) {
+            return;
+        }
+        List<EmailOutboxMessage> messages = outboxRepository.findAllById(claimedIds);
+
+        int chunks = Math.min(workers, messages.size());
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            List<EmailOutboxMessage> chunk = messages.subList(
+                    i * messages.size() / chunks, (i + 1) * messages.size() / chunks);
+            tasks.add(() -> {
+                sendChunk(chunk);
+                return null;
+            });
+        }
+        try {
+            emailOutboxExecutor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            // Unfinished messages keep their lease and are claimed again once it expires
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Long> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(lease, ChronoUnit.MILLIS);
+        List<Long> dueIds = outboxRepository.findDueIds(CLAIMABLE, now, PageRequest.of(0, batchSize));
+        List<Long> claimedIds = new ArrayList<>(dueIds.size());
+        for (Long id : dueIds) {
+            Integer claimed = transactionTemplate.execute(status -> outboxRepository.claim(
+                    id, CLAIMABLE, EmailOutboxMessage.Status.SENDING, now, leaseUntil));
+            if (claimed != null && claimed == 1) {
+                claimedIds.add(id);
+            }
+        }
+        return claimedIds;
+    }
+
+    private void sendChunk(List<EmailOutboxMessage> chunk) {
+        // The lease end as claimed, before retries overwrite nextAttemptAt
+        Map<Long, LocalDateTime> leases = new HashMap<>();
+        chunk.forEach(message -> leases.put(message.getId(), message.getNextAttemptAt()));
+
+        Map<MimeMessage, EmailOutboxMessage> prepared = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : chunk) {
+            try {
+                prepared.put(RoutingContext.callAs(message.getUserId(), () -> emailService.createReportMessage(message)),
+                        message);
+            } catch (EntityNotFoundException e) {
+                markFailed(message, e);
+            } catch (Exception e) {
+                scheduleRetry(message, e);
+            }
+        }
+
+        if (!prepared.isEmpty()) {
+            try {
+                emailService.send(prepared.keySet().toArray(new MimeMessage[0]));
+                prepared.values().forEach(this::markSent);
+            } catch (MailSendException e) {
+                Map<Object, Exception> failures = e.getFailedMessages();
+                prepared.forEach((mimeMessage, message) -> {
+                    Exception failure = failures.get(mimeMessage);
+                    if (failure == null) {
+                        markSent(message);
+                    } else {
+                        scheduleRetry(message, failure);
+                    }
+                });
+            } catch (Exception e) {
+                prepared.values().forEach(message -> scheduleRetry(message, e));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                chunk.forEach(message -> recordOutcome(message, leases.get(message.getId()))));
+    }
+
+    /**
+     * Writes the outcome only if the message is still under this worker's claim. If the lease expired while
+     * sending, another worker may have claimed the message again, and its status and attempts win.
+     */
+    private void recordOutcome(EmailOutboxMessage message, LocalDateTime leaseUntil) {
+        int updated = outboxRepository.recordOutcome(message.getId(), EmailOutboxMessage.Status.SENDING, leaseUntil,
+                message.getStatus(), message.getNextAttemptAt(), message.getLastError(), message.getSentAt(),
+                LocalDateTime.now());
+        if (updated == 0) {
+            log.warn("Expense report {} lease expired before its {} outcome was recorded; it was claimed again",
+                    message.getTrackingId(), message.getStatus());
+        }
+    }
+
+    private void markSent(EmailOutboxMessage message) {
+        message.setStatus(EmailOutboxMessage.Status.SENT);
+        message.setSentAt(LocalDateTime.now());
+        message.setLastError(null);
+        log.info("Expense report {} sent to {}", message.getTrackingId(), message.getRecipient());
+    }
+
+    private void markFailed(EmailOutboxMessage message, Exception e) {
+        message.setStatus(EmailOutboxMessage.Status.FAILED);
+        message.setLastError(truncate(e.getMessage()));
+        log.error("Expense report {} failed after {} attempts: {}",
+                message.getTrackingId(), message.getAttempts(), e.getMessage());
+    }
+
+    private void scheduleRetry(EmailOutboxMessage message, Exception e) {
+        if (message.getAttempts() >= maxAttempts) {
+            markFailed(message, e);
+            return;
+        }
+        message.setStatus(EmailOutboxMessage.Status.PENDING);
+        message.setNextAttemptAt(LocalDateTime.now().plus(backoff(message.getAttempts()), ChronoUnit.MILLIS));
+        message.setLastError(truncate(e.getMessage()));
+        log.warn("Expense report {} attempt {} failed, retrying at {}: {}",
+                message.getTrackingId(), message.getAttempts(), message.getNextAttemptAt(), e.getMessage());
+    }
+
+    /**
+     * Doubles from {@code email.outbox.initial-backoff} per attempt up to {@code email.outbox.max-backoff},
+     * plus up to 20% jitter so messages that failed together do not retry together.
+     */
+    private long backoff(int attempts) {
+        long delay = Math.min(initialBackoff << Math.min(attempts - 1, 20), maxBackoff);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private EmailDeliveryDTO toDTO(EmailOutboxMessage message) {
+        boolean scheduled = message.getStatus() == EmailOutboxMessage.Status.PENDING;
+        return new EmailDeliveryDTO(message.getTrackingId(), message.getStatus().name(), message.getRecipient(),
+                message.getAttempts(), message.getCreatedAt(), scheduled ? message.getNextAttemptAt() : null,
+                message.getSentAt(), message.getLastError());
+    }
+}
@@ -1,9 +1,9 @@
 package com.expensetracker.service;
 
-import com.expensetracker.dto.CategorySummaryDTO;
-import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.model.EmailOutboxMessage;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.persistence.EntityNotFoundException;
@@ -16,12 +16,13 @@ import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import java.math.BigDecimal;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
@@ -33,49 +34,65 @@ public class EmailService {
     private final ExpenseService expenseService;
     private final UserRepository userRepository;
 
-    public void sendExpenseReport(String username, LocalDate startDate, LocalDate endDate) throws MessagingException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+    public boolean isConfigured() {
+        return mailSender != null;
+    }
+
+    /**
+     * Renders the report described by an outbox message into a ready-to-send email.
+     */
+    public MimeMessage createReportMessage(EmailOutboxMessage outboxMessage) throws MessagingException {
+        if (mailSender == null) {
+            throw new MessagingException("Email service not configured. Use 'Download Report' instead.");
+        }
+        User user = userRepository.findById(outboxMessage.getUserId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + outboxMessage.getUserId()));
 
-        String htmlContent = generateReportHtml(username, startDate, endDate);
-        String subject = buildSubject(startDate, endDate);
+        StringWriter htmlContent = new StringWriter();
+        writeReport(user.getId(), user.getUsername(), outboxMessage.getStartDate(), outboxMessage.getEndDate(),
+                htmlContent);
 
-        // Send email
-        sendHtmlEmail(user.getEmail(), subject, htmlContent);
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-        log.info("Expense report sent to {} for user {}", user.getEmail(), username);
+        helper.setFrom("no-reply@expensetracker.com");
+        helper.setTo(outboxMessage.getRecipient());
+        helper.setSubject(outboxMessage.getSubject());
+        helper.setText(htmlContent.toString(), true);
+        return message;
     }
 
     /**
-     * Generate HTML report without sending email - useful when SMTP is blocked
+     * Sends the messages over a single SMTP connection. Per-message failures are reported through
+     * {@link org.springframework.mail.MailSendException#getFailedMessages()}.
      */
-    public byte[] generateReportAsHtml(String username, LocalDate startDate, LocalDate endDate) {
-        String htmlContent = generateReportHtml(username, startDate, endDate);
-        return htmlContent.getBytes();
+    public void send(MimeMessage... messages) {
+        mailSender.send(messages);
     }
 
-    private String generateReportHtml(String username, LocalDate startDate, LocalDate endDate) {
-        // Fetch expense data
-        List<ExpenseDTO> expenses = expenseService.getAllExpenses(username, null, startDate, endDate);
-        List<CategorySummaryDTO> categorySummary = expenseService.getCategorySummary(username, startDate, endDate);
-        BigDecimal totalAmount = expenseService.getTotalExpenses(username, startDate, endDate);
+    /**
+     * Renders the report straight to {@code writer}. Expense rows are read in pages as the table is written, so
+     * memory use does not grow with the number of rows and no connection is held while the output is written.
+     * Totals and the category breakdown are folded from the same rows as they stream past and rendered after
+     * the table, so they always match the listed expenses.
+     */
+    public void writeReport(Long userId, String username, LocalDate startDate, LocalDate endDate, Writer writer) {
+        ExpenseAggregator report = new ExpenseAggregator();
 
-        // Prepare template context
         Context context = new Context();
         context.setVariable("username", username);
         context.setVariable("startDate", startDate);
         context.setVariable("endDate", endDate);
-        context.setVariable("expenses", expenses);
-        context.setVariable("categorySummary", categorySummary);
-        context.setVariable("totalAmount", totalAmount);
-        context.setVariable("expenseCount", expenses.size());
+        // An iterator rather than a list, so th:each pulls rows one page at a time
+        context.setVariable("expenses", report.folding(expenseService.reportRows(userId, startDate, endDate)));
+        // Read by the template only after the expense table has consumed every row
+        context.setVariable("report", report);
         context.setVariable("generatedAt", LocalDateTime.now());
 
-        // Render HTML template
-        return templateEngine.process("email/expense-report", context);
+        templateEngine.process("email/expense-report", context, writer);
     }
 
-    private String buildSubject(LocalDate startDate, LocalDate endDate) {
+    public String buildSubject(LocalDate startDate, LocalDate endDate) {
         if (startDate != null && endDate != null) {
             return String.format("Expense Report: %s to %s", startDate, endDate);
         } else if (startDate != null) {
@@ -85,20 +102,4 @@ public class EmailService {
         }
         return "Expense Report: All Time Summary";
     }
-
-    private void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
-        if (mailSender == null) {
-            throw new MessagingException("Email service not configured. Use 'Download Report' instead.");
-        }
-
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom("no-reply@expensetracker.com");
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-
-        mailSender.send(message);
-    }
 }
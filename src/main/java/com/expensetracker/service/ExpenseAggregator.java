@@ -0,0 +1,107 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategorySummaryDTO;
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds expense rows into a grand total and per-category sums and counts in a single pass. Sums are kept in
+ * minor units and only turned into {@code BigDecimal} for the returned DTOs.
+ */
+public class ExpenseAggregator {
+
+    private final Map<Long, CategoryTotal> byCategory = new LinkedHashMap<>();
+    private long totalAmount;
+    private long expenseCount;
+
+    public void add(Long categoryId, String categoryName, BigDecimal amount) {
+        long minorUnits = Money.toMinorUnits(amount);
+        totalAmount += minorUnits;
+        expenseCount++;
+
+        CategoryTotal category = byCategory.get(categoryId);
+        if (category == null) {
+            category = new CategoryTotal(categoryId, categoryName);
+            byCategory.put(categoryId, category);
+        }
+        category.amount += minorUnits;
+        category.count++;
+    }
+
+    /**
+     * Wraps {@code rows} so each row is added here as it is consumed. Once the iterator is exhausted the totals
+     * cover exactly the rows it returned, however the rows were read. Rows must carry their category name.
+     */
+    public Iterator<ExpenseDTO> folding(Iterator<ExpenseDTO> rows) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public ExpenseDTO next() {
+                ExpenseDTO expense = rows.next();
+                add(expense.getCategoryId(), expense.getCategoryName(), expense.getAmount());
+                return expense;
+            }
+        };
+    }
+
+    public BigDecimal getTotalAmount() {
+        return Money.toBigDecimal(totalAmount);
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    /**
+     * Category totals ordered by amount, descending, with their share of the grand total.
+     */
+    public List<CategorySummaryDTO> getCategorySummary() {
+        List<CategoryTotal> totals = new ArrayList<>(byCategory.values());
+        totals.sort(Comparator.comparingLong((CategoryTotal category) -> category.amount).reversed());
+        List<CategorySummaryDTO> summary = new ArrayList<>(totals.size());
+        for (CategoryTotal category : totals) {
+            summary.add(new CategorySummaryDTO(category.id, category.name, Money.toBigDecimal(category.amount),
+                    category.count, Money.percentage(category.amount, totalAmount)));
+        }
+        return summary;
+    }
+
+    /**
+     * Sets each category's percentage of the summary's grand total, rounded half-up to two decimals.
+     */
+    public static void applyPercentages(List<CategorySummaryDTO> summary) {
+        long[] amounts = new long[summary.size()];
+        long total = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Money.toMinorUnits(summary.get(i).getTotalAmount());
+            total += amounts[i];
+        }
+        for (int i = 0; i < amounts.length; i++) {
+            summary.get(i).setPercentage(Money.percentage(amounts[i], total));
+        }
+    }
+
+    private static final class CategoryTotal {
+        private final Long id;
+        private final String name;
+        private long amount;
+        private long count;
+
+        private CategoryTotal(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
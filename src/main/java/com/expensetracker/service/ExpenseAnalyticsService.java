@@ -0,0 +1,190 @@
+package com.expensetracker.service;
+
+import com.expensetracker.cache.DailySeries;
+import com.expensetracker.cache.DailySeriesCache;
+import com.expensetracker.dto.CategoryComparisonDTO;
+import com.expensetracker.dto.ComparisonRequest;
+import com.expensetracker.dto.DailySeriesDTO;
+import com.expensetracker.dto.DailySummaryDTO;
+import com.expensetracker.dto.DateRangeDTO;
+import com.expensetracker.dto.PeriodComparisonDTO;
+import com.expensetracker.model.Money;
+import com.expensetracker.repository.ExpenseRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-period comparisons and daily series. Totals, per-category breakdowns and rolling windows for all
+ * requested periods come from a single conditional-aggregation query over the union of their date ranges;
+ * daily series are read from the per-user {@link DailySeriesCache}.
+ */
+@Service
+@Timed(value = "service.calls", histogram = true)
+@RequiredArgsConstructor
+public class ExpenseAnalyticsService {
+
+    private static final int DEFAULT_ROLLING_MONTHS = 3;
+    private static final int MAX_DAILY_SERIES_DAYS = 3660;
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final DailySeriesCache dailySeriesCache;
+
+    @Transactional(readOnly = true)
+    public List<PeriodComparisonDTO> comparePeriods(Long userId, ComparisonRequest request) {
+        List<DateRangeDTO> periods = request.getPeriods();
+        int rollingMonths = request.getRollingMonths() != null ? request.getRollingMonths() : DEFAULT_ROLLING_MONTHS;
+
+        // Ranges 0..n-1 are the periods themselves, n..2n-1 their trailing rolling windows
+        int n = periods.size();
+        List<LocalDate[]> ranges = new ArrayList<>(2 * n);
+        for (DateRangeDTO period : periods) {
+            if (period.getStartDate().isAfter(period.getEndDate())) {
+                throw new IllegalArgumentException("Period start date must not be after its end date: " + label(period, ranges.size()));
+            }
+            ranges.add(new LocalDate[]{period.getStartDate(), period.getEndDate()});
+        }
+        for (DateRangeDTO period : periods) {
+            ranges.add(new LocalDate[]{period.getEndDate().minusMonths(rollingMonths).plusDays(1), period.getEndDate()});
+        }
+
+        List<Object[]> rows = expenseRepository.sumByCategoryInRanges(userId, ranges);
+
+        long[] totals = new long[2 * n];
+        long[] counts = new long[n];
+        for (Object[] row : rows) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += sum(row, i);
+            }
+            for (int i = 0; i < n; i++) {
+                counts[i] += count(row, i);
+            }
+        }
+
+        List<PeriodComparisonDTO> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            DateRangeDTO period = periods.get(i);
+            long days = ChronoUnit.DAYS.between(period.getStartDate(), period.getEndDate()) + 1;
+
+            List<CategoryComparisonDTO> categories = new ArrayList<>();
+            for (Object[] row : rows) {
+                // Categories absent from this period are still listed when the base has them, to show the delta
+                if (count(row, i) == 0 && count(row, 0) == 0) {
+                    continue;
+                }
+                Long categoryId = (Long) row[0];
+                long amount = sum(row, i);
+                categories.add(new CategoryComparisonDTO(categoryId, categoryDictionary.nameOf(categoryId),
+                        Money.toBigDecimal(amount), count(row, i), Money.percentage(amount, totals[i]),
+                        i == 0 ? null : Money.toBigDecimal(sum(row, 0) - amount)));
+            }
+            categories.sort(Comparator.comparing(CategoryComparisonDTO::getTotalAmount).reversed());
+
+            Long deltaAmount = i == 0 ? null : totals[0] - totals[i];
+            Double deltaPercent = deltaAmount == null || totals[i] == 0
+                    ? null
+                    : Money.percentage(deltaAmount, totals[i]);
+
+            result.add(new PeriodComparisonDTO(label(period, i), period.getStartDate(), period.getEndDate(),
+                    Money.toBigDecimal(totals[i]), counts[i],
+                    Money.toBigDecimal(Money.divide(totals[i], days)),
+                    Money.toBigDecimal(Money.divide(totals[n + i], rollingMonths)),
+                    deltaAmount == null ? null : Money.toBigDecimal(deltaAmount), deltaPercent, categories));
+        }
+        return result;
+    }
+
+    /**
+     * One entry per day from {@code startDate} (default: the first expense) to {@code endDate} (default: today),
+     * including days without expenses. The range total is a single prefix-sum difference.
+     */
+    @Transactional(readOnly = true)
+    public DailySeriesDTO getDailySeries(Long userId, LocalDate startDate, LocalDate endDate, boolean byCategory) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        LocalDate today = LocalDate.now();
+        DailySeriesDTO cached = dailySeriesCache.read(userId,
+                maxBytes -> DailySeries.build(expenseRepository.getDailyCategoryTotalsByUser(userId), today, maxBytes),
+                series -> toDailySeries(series,
+                        startDate != null ? startDate : LocalDate.ofEpochDay(series.firstDay()),
+                        endDate != null ? endDate : today,
+                        byCategory));
+        if (cached != null) {
+            return cached;
+        }
+
+        // The user's dates span too many days to cache: build just the requested window for this read
+        List<Object[]> rows = expenseRepository.getDailyCategoryTotalsByUser(userId);
+        LocalDate from = startDate;
+        if (from == null) {
+            from = rows.stream().map(row -> (LocalDate) row[0]).min(Comparator.naturalOrder()).orElse(today);
+        }
+        LocalDate to = endDate != null ? endDate : today;
+        checkDailySeriesSpan(from, to);
+        return toDailySeries(DailySeries.window(rows, from, to), from, to, byCategory);
+    }
+
+    private static void checkDailySeriesSpan(LocalDate startDate, LocalDate endDate) {
+        if (endDate.toEpochDay() - startDate.toEpochDay() + 1 > MAX_DAILY_SERIES_DAYS) {
+            throw new IllegalArgumentException("Daily series are limited to " + MAX_DAILY_SERIES_DAYS + " days");
+        }
+    }
+
+    private static DailySeriesDTO toDailySeries(DailySeries series, LocalDate startDate, LocalDate endDate,
+                                                boolean byCategory) {
+        int from = (int) startDate.toEpochDay();
+        int to = (int) endDate.toEpochDay();
+        if (to < from) {
+            // Only reachable through the defaults, e.g. an explicit start date after today
+            to = from - 1;
+        } else {
+            checkDailySeriesSpan(startDate, endDate);
+        }
+
+        long[] categoryIds = byCategory ? series.categoryIds() : new long[0];
+        List<DailySummaryDTO> days = new ArrayList<>(to - from + 1);
+        for (int day = from; day <= to; day++) {
+            Map<Long, BigDecimal> categories = null;
+            if (byCategory) {
+                categories = new LinkedHashMap<>();
+                for (int slot = 0; slot < categoryIds.length; slot++) {
+                    long amount = series.categoryAmountBetween(slot, day, day);
+                    if (amount != 0) {
+                        categories.put(categoryIds[slot], Money.toBigDecimal(amount));
+                    }
+                }
+            }
+            days.add(new DailySummaryDTO(LocalDate.ofEpochDay(day),
+                    Money.toBigDecimal(series.amountBetween(day, day)),
+                    series.countBetween(day, day), categories));
+        }
+        return new DailySeriesDTO(startDate, endDate,
+                Money.toBigDecimal(series.amountBetween(from, to)), series.countBetween(from, to), days);
+    }
+
+    // Row layout: category id, then a (sum, count) pair per range; sums are returned in minor units
+    private static long sum(Object[] row, int range) {
+        Object value = row[1 + 2 * range];
+        return Money.toMinorUnits(value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString()));
+    }
+
+    private static long count(Object[] row, int range) {
+        return ((Number) row[2 + 2 * range]).longValue();
+    }
+
+    private static String label(DateRangeDTO period, int index) {
+        return period.getLabel() != null ? period.getLabel() : "period " + (index + 1);
+    }
+}
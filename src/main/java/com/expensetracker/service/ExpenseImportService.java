@@ -0,0 +1,534 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.dto.ImportErrorDTO;
+import com.expensetracker.dto.ImportResultDTO;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.model.ExpenseRollup;
+import com.expensetracker.model.ImportFormat;
+import com.expensetracker.model.ImportMode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports expenses in bulk from CSV, a JSON array or NDJSON. Rows are parsed and validated one at a
+ * time while the body is read, categories are resolved from the in-memory {@link CategoryDictionary}, and valid rows
+ * are written with JDBC batch inserts instead of one entity persist per row. All-or-nothing imports read the whole
+ * body before opening their transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (description, amount, date, category_id, user_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryDictionary categoryDictionary;
+    private final ExpenseRollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${expenses.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${expenses.import.max-errors:100}")
+    private int maxErrors;
+
+    public ImportResultDTO importExpenses(Long userId, ImportFormat format, ImportMode mode, InputStream inputStream)
+            throws IOException {
+        ImportResultDTO result = new ImportResultDTO(mode);
+        try (RowReader reader = format == ImportFormat.CSV ? new CsvRowReader(inputStream) : new JsonRowReader(inputStream)) {
+            RowValidator rowValidator = new RowValidator(userId, result);
+            if (mode == ImportMode.ALL_OR_NOTHING) {
+                importAllOrNothing(userId, reader, rowValidator, result);
+            } else {
+                importBestEffort(userId, reader, rowValidator, result);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        log.info("Imported {} of {} expense rows for user {} ({}, {} failed)",
+                result.getImported(), result.getRowsRead(), userId, mode, result.getFailed());
+        return result;
+    }
+
+    /**
+     * Reads and validates the whole upload before touching the database: a slow client would otherwise
+     * keep a pooled connection and an open transaction busy for as long as it takes to send the body.
+     * Valid rows are spooled to a temporary file and inserted together in one short transaction.
+     */
+    private void importAllOrNothing(Long userId, RowReader reader, RowValidator rowValidator, ImportResultDTO result)
+            throws IOException {
+        try (RowSpool spool = new RowSpool()) {
+            ParsedRow row;
+            while ((row = reader.next()) != null) {
+                result.setRowsRead(result.getRowsRead() + 1);
+                Object[] params = rowValidator.toInsertParams(row);
+                // After the first failure the import is lost; keep reading only to report further errors
+                if (params != null && result.getFailed() == 0) {
+                    spool.write(row);
+                }
+            }
+            if (result.getFailed() > 0 || spool.size() == 0) {
+                return;
+            }
+
+            spool.rewind();
+            try {
+                Long inserted = transactionTemplate.execute(status -> {
+                    long total = 0;
+                    Batch batch = new Batch();
+                    ParsedRow spooled;
+                    while ((spooled = spool.read()) != null) {
+                        batch.add(spooled, rowValidator.insertParams(spooled.expense));
+                        if (batch.size() >= batchSize) {
+                            total += writeBatch(userId, batch);
+                            batch = new Batch();
+                        }
+                    }
+                    return total + writeBatch(userId, batch);
+                });
+                result.setImported(inserted != null ? inserted : 0);
+            } catch (DataAccessException e) {
+                recordError(result, 0, "Import rolled back: " + rootMessage(e));
+            }
+        }
+    }
+
+    private void importBestEffort(Long userId, RowReader reader, RowValidator rowValidator, ImportResultDTO result) {
+        Batch batch = new Batch();
+        ParsedRow row;
+        while ((row = reader.next()) != null) {
+            result.setRowsRead(result.getRowsRead() + 1);
+            Object[] params = rowValidator.toInsertParams(row);
+            if (params == null) {
+                continue;
+            }
+            batch.add(row, params);
+            if (batch.size() >= batchSize) {
+                commitBestEffort(userId, batch, result);
+                batch = new Batch();
+            }
+        }
+        commitBestEffort(userId, batch, result);
+    }
+
+    /**
+     * Commits one batch in its own transaction; if the database rejects it, retries row by row so
+     * only the offending rows are dropped.
+     */
+    private void commitBestEffort(Long userId, Batch batch, ImportResultDTO result) {
+        if (batch.size() == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(userId, batch));
+            result.setImported(result.getImported() + batch.size());
+        } catch (DataAccessException batchError) {
+            for (int i = 0; i < batch.size(); i++) {
+                Batch single = batch.single(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeBatch(userId, single));
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowError) {
+                    recordError(result, batch.rows.get(i).rowNumber, rootMessage(rowError));
+                }
+            }
+        }
+    }
+
+    private int writeBatch(Long userId, Batch batch) {
+        if (batch.size() == 0) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch.params);
+        rollupService.applyDeltas(userId, batch.rollupDeltas.values());
+        eventPublisher.publishEvent(new ExpensesChangedEvent(userId));
+        return batch.size();
+    }
+
+    private void recordError(ImportResultDTO result, long rowNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new ImportErrorDTO(rowNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static String rootMessage(Exception e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    /**
+     * Resolves categories and validates a parsed row, returning its insert parameters or {@code null}
+     * after recording why the row was rejected.
+     */
+    @RequiredArgsConstructor
+    private class RowValidator {
+
+        private final Long userId;
+        private final ImportResultDTO result;
+        private final LocalDateTime importedAt = LocalDateTime.now();
+
+        Object[] toInsertParams(ParsedRow row) {
+            if (row.error != null) {
+                recordError(result, row.rowNumber, row.error);
+                return null;
+            }
+            ExpenseDTO dto = row.expense;
+
+            Long categoryId = null;
+            if (dto.getCategoryId() != null) {
+                categoryId = categoryDictionary.exists(dto.getCategoryId()) ? dto.getCategoryId() : null;
+            } else if (dto.getCategoryName() != null) {
+                categoryId = categoryDictionary.idOf(dto.getCategoryName());
+            }
+            if (categoryId == null) {
+                String reference = dto.getCategoryId() != null ? "id " + dto.getCategoryId() : dto.getCategoryName();
+                recordError(result, row.rowNumber, reference == null ? "Category is required" : "Unknown category: " + reference);
+                return null;
+            }
+            dto.setCategoryId(categoryId);
+
+            Set<ConstraintViolation<ExpenseDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                recordError(result, row.rowNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return null;
+            }
+
+            return insertParams(dto);
+        }
+
+        Object[] insertParams(ExpenseDTO dto) {
+            return new Object[]{dto.getDescription(), dto.getAmount(), dto.getDate(), dto.getCategoryId(), userId,
+                    importedAt, importedAt};
+        }
+    }
+
+    private static final class ParsedRow {
+
+        private final long rowNumber;
+        private final ExpenseDTO expense;
+        private final String error;
+
+        private ParsedRow(long rowNumber, ExpenseDTO expense, String error) {
+            this.rowNumber = rowNumber;
+            this.expense = expense;
+            this.error = error;
+        }
+
+        static ParsedRow of(long rowNumber, ExpenseDTO expense) {
+            return new ParsedRow(rowNumber, expense, null);
+        }
+
+        static ParsedRow failed(long rowNumber, String error) {
+            return new ParsedRow(rowNumber, null, error);
+        }
+    }
+
+    /**
+     * Insert parameters for up to one batch of rows, with their rollup deltas pre-aggregated per
+     * (year, month, category) bucket.
+     */
+    private static final class Batch {
+
+        private final List<Object[]> params = new ArrayList<>();
+        private final List<ParsedRow> rows = new ArrayList<>();
+        private final Map<String, ExpenseRollup> rollupDeltas = new LinkedHashMap<>();
+
+        void add(ParsedRow row, Object[] insertParams) {
+            params.add(insertParams);
+            rows.add(row);
+
+            LocalDate date = row.expense.getDate();
+            BigDecimal amount = row.expense.getAmount();
+            Long categoryId = row.expense.getCategoryId();
+            rollupDeltas.compute(date.getYear() + "-" + date.getMonthValue() + "-" + categoryId, (key, delta) -> {
+                if (delta == null) {
+                    return new ExpenseRollup(null, date.getYear(), date.getMonthValue(), categoryId, amount, 1L);
+                }
+                delta.setTotalAmount(delta.getTotalAmount().add(amount));
+                delta.setExpenseCount(delta.getExpenseCount() + 1);
+                return delta;
+            });
+        }
+
+        Batch single(int index) {
+            Batch single = new Batch();
+            single.add(rows.get(index), params.get(index));
+            return single;
+        }
+
+        int size() {
+            return params.size();
+        }
+    }
+
+    /**
+     * Validated rows of an all-or-nothing import, kept in a temporary file rather than on the heap so an
+     * upload of any size can be read in full before its transaction starts. Holds only the fields the
+     * insert needs; descriptions are at most 255 characters, well within {@code writeUTF}'s limit.
+     */
+    private static final class RowSpool implements Closeable {
+
+        private final Path file;
+        private DataOutputStream output;
+        private DataInputStream input;
+        private long size;
+        private long remaining;
+
+        RowSpool() throws IOException {
+            file = Files.createTempFile("expense-import-", ".rows");
+            output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        }
+
+        void write(ParsedRow row) {
+            ExpenseDTO expense = row.expense;
+            try {
+                output.writeLong(row.rowNumber);
+                output.writeUTF(expense.getDescription());
+                output.writeUTF(expense.getAmount().toPlainString());
+                output.writeLong(expense.getDate().toEpochDay());
+                output.writeLong(expense.getCategoryId());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size++;
+        }
+
+        long size() {
+            return size;
+        }
+
+        void rewind() throws IOException {
+            output.close();
+            output = null;
+            input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            remaining = size;
+        }
+
+        ParsedRow read() {
+            if (remaining == 0) {
+                return null;
+            }
+            remaining--;
+            try {
+                long rowNumber = input.readLong();
+                ExpenseDTO expense = new ExpenseDTO();
+                expense.setDescription(input.readUTF());
+                expense.setAmount(new BigDecimal(input.readUTF()));
+                expense.setDate(LocalDate.ofEpochDay(input.readLong()));
+                expense.setCategoryId(input.readLong());
+                return ParsedRow.of(rowNumber, expense);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (output != null) {
+                    output.close();
+                }
+                if (input != null) {
+                    input.close();
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Pull-based source of parsed rows; returns {@code null} once the input is exhausted.
+     */
+    private interface RowReader extends Closeable {
+        ParsedRow next();
+    }
+
+    /**
+     * Reads CSV with a header row naming the columns. The export's own layout is accepted, so an
+     * exported file can be imported again; the ID column is ignored.
+     */
+    private static final class CsvRowReader implements RowReader {
+
+        private final CSVReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long rowNumber;
+
+        CsvRowReader(InputStream inputStream) throws IOException {
+            reader = new CSVReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+            String[] header;
+            try {
+                header = reader.readNext();
+            } catch (CsvValidationException e) {
+                throw new IllegalArgumentException("Invalid CSV header: " + e.getMessage());
+            }
+            if (header == null) {
+                return;
+            }
+            for (int i = 0; i < header.length; i++) {
+                // Strip a UTF-8 byte order mark left by spreadsheet exports
+                String name = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).replace(" ", "");
+                columns.put(name, i);
+            }
+            if (!columns.containsKey("description") || !columns.containsKey("amount") || !columns.containsKey("date")
+                    || !(columns.containsKey("category") || columns.containsKey("categoryid"))) {
+                throw new IllegalArgumentException("CSV header must contain Description, Amount, Date and Category or CategoryId columns");
+            }
+        }
+
+        @Override
+        public ParsedRow next() {
+            String[] line;
+            try {
+                do {
+                    line = reader.readNext();
+                    if (line == null) {
+                        return null;
+                    }
+                    rowNumber++;
+                } while (line.length == 1 && line[0].isBlank());
+            } catch (CsvValidationException e) {
+                return ParsedRow.failed(rowNumber, "Invalid CSV line: " + e.getMessage());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            ExpenseDTO expense = new ExpenseDTO();
+            expense.setDescription(value(line, "description"));
+            String amount = value(line, "amount");
+            String date = value(line, "date");
+            String categoryId = value(line, "categoryid");
+            try {
+                expense.setAmount(amount != null ? new BigDecimal(amount) : null);
+            } catch (NumberFormatException e) {
+                return ParsedRow.failed(rowNumber, "Invalid amount: " + amount);
+            }
+            try {
+                expense.setDate(date != null ? LocalDate.parse(date) : null);
+            } catch (DateTimeParseException e) {
+                return ParsedRow.failed(rowNumber, "Invalid date: " + date);
+            }
+            try {
+                expense.setCategoryId(categoryId != null ? Long.valueOf(categoryId) : null);
+            } catch (NumberFormatException e) {
+                return ParsedRow.failed(rowNumber, "Invalid category id: " + categoryId);
+            }
+            expense.setCategoryName(value(line, "category"));
+            return ParsedRow.of(rowNumber, expense);
+        }
+
+        private String value(String[] line, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= line.length || line[index].isBlank()) {
+                return null;
+            }
+            return line[index].trim();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads either a top-level JSON array or newline-delimited JSON objects, one element at a time.
+     * A value of the wrong type fails only its row; malformed JSON ends the import at that point.
+     */
+    private final class JsonRowReader implements RowReader {
+
+        private final MappingIterator<JsonNode> iterator;
+        private long rowNumber;
+        private boolean stopped;
+
+        JsonRowReader(InputStream inputStream) throws IOException {
+            iterator = objectMapper.readerFor(JsonNode.class).readValues(inputStream);
+        }
+
+        @Override
+        public ParsedRow next() {
+            if (stopped) {
+                return null;
+            }
+            JsonNode node;
+            try {
+                if (!iterator.hasNextValue()) {
+                    return null;
+                }
+                node = iterator.nextValue();
+            } catch (JsonProcessingException e) {
+                stopped = true;
+                return ParsedRow.failed(rowNumber + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            rowNumber++;
+            try {
+                return ParsedRow.of(rowNumber, objectMapper.treeToValue(node, ExpenseDTO.class));
+            } catch (JsonProcessingException e) {
+                return ParsedRow.failed(rowNumber, "Invalid value: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategorySummaryDTO;
+import com.expensetracker.dto.MonthlySummaryDTO;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.ExpenseRollup;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the per-user (year, month, category) rollups and answers summary queries from them.
+ * Whole months inside a date range are read from the rollups; only the partial months at either
+ * edge of the range touch the raw expense rows, so the cost no longer grows with history size.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class ExpenseRollupService {
+
+    private final ExpenseRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+
+    public void recordCreated(Expense expense) {
+        applyDelta(expense.getUser().getId(), expense.getDate(), expense.getCategory().getId(), expense.getAmount(), 1);
+    }
+
+    public void recordDeleted(Expense expense) {
+        applyDelta(expense.getUser().getId(), expense.getDate(), expense.getCategory().getId(), expense.getAmount().negate(), -1);
+    }
+
+    /**
+     * Moves an updated expense between rollup buckets when its date, category or amount changed.
+     */
+    public void recordUpdated(LocalDate previousDate, Long previousCategoryId, BigDecimal previousAmount, Expense expense) {
+        boolean samePeriod = YearMonth.from(previousDate).equals(YearMonth.from(expense.getDate()));
+        boolean sameCategory = Objects.equals(previousCategoryId, expense.getCategory().getId());
+        if (samePeriod && sameCategory && previousAmount.compareTo(expense.getAmount()) == 0) {
+            return;
+        }
+        Long userId = expense.getUser().getId();
+        applyDelta(userId, previousDate, previousCategoryId, previousAmount.negate(), -1);
+        applyDelta(userId, expense.getDate(), expense.getCategory().getId(), expense.getAmount(), 1);
+    }
+
+    /**
+     * Applies deltas pre-aggregated per (year, month, category) for rows written outside JPA, such as bulk imports.
+     */
+    public void applyDeltas(Long userId, Collection<ExpenseRollup> deltas) {
+        for (ExpenseRollup delta : deltas) {
+            applyDelta(userId, delta.getYear(), delta.getMonth(), delta.getCategoryId(),
+                    delta.getTotalAmount(), delta.getExpenseCount());
+        }
+    }
+
+    /**
+     * Applies the difference between bucket totals taken before and after a set-based change to expense
+     * rows. Rows are {@code {year, month, categoryId, totalAmount, count}}.
+     */
+    public void recordBulkChange(Long userId, List<Object[]> before, List<Object[]> after) {
+        Map<String, ExpenseRollup> deltas = new LinkedHashMap<>();
+        mergeBucketRows(userId, deltas, before, -1);
+        mergeBucketRows(userId, deltas, after, 1);
+        deltas.values().removeIf(delta -> delta.getExpenseCount() == 0 && delta.getTotalAmount().signum() == 0);
+        applyDeltas(userId, deltas.values());
+    }
+
+    private void mergeBucketRows(Long userId, Map<String, ExpenseRollup> deltas, List<Object[]> rows, int sign) {
+        for (Object[] row : rows) {
+            BigDecimal amount = sign < 0 ? ((BigDecimal) row[3]).negate() : (BigDecimal) row[3];
+            long count = sign * (Long) row[4];
+            ExpenseRollup delta = deltas.get(bucketKey(row[0], row[1], row[2]));
+            if (delta == null) {
+                deltas.put(bucketKey(row[0], row[1], row[2]),
+                        new ExpenseRollup(userId, (Integer) row[0], (Integer) row[1], (Long) row[2], amount, count));
+            } else {
+                delta.setTotalAmount(delta.getTotalAmount().add(amount));
+                delta.setExpenseCount(delta.getExpenseCount() + count);
+            }
+        }
+    }
+
+    private void applyDelta(Long userId, LocalDate date, Long categoryId, BigDecimal amount, long count) {
+        applyDelta(userId, date.getYear(), date.getMonthValue(), categoryId, amount, count);
+    }
+
+    private void applyDelta(Long userId, int year, int month, Long categoryId, BigDecimal amount, long count) {
+        if (count > 0) {
+            rollupRepository.upsertDelta(userId, year, month, categoryId, amount, count);
+        } else if (rollupRepository.applyDelta(userId, year, month, categoryId, amount, count) == 0) {
+            log.warn("Missing rollup for user {} {}-{} category {}; run a rollup verify", userId, year, month, categoryId);
+        } else if (count < 0) {
+            rollupRepository.deleteIfEmpty(userId, year, month, categoryId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalAmount(Long userId, LocalDate startDate, LocalDate endDate) {
+        RangeSplit split = RangeSplit.of(startDate, endDate);
+        BigDecimal total = BigDecimal.ZERO;
+        if (split.hasFullMonths()) {
+            total = total.add(zeroIfNull(rollupRepository.getTotalAmount(userId, split.fromPeriod, split.toPeriod)));
+        }
+        for (LocalDate[] edge : split.edges) {
+            total = total.add(zeroIfNull(expenseRepository.getTotalAmountByUser(userId, edge[0], edge[1])));
+        }
+        return total;
+    }
+
+    /**
+     * Per-category totals ordered by amount, descending. Percentages are left for the caller to fill in.
+     */
+    @Transactional(readOnly = true)
+    public List<CategorySummaryDTO> getCategorySummary(Long userId, LocalDate startDate, LocalDate endDate) {
+        RangeSplit split = RangeSplit.of(startDate, endDate);
+        Map<Long, CategorySummaryDTO> byCategory = new LinkedHashMap<>();
+        if (split.hasFullMonths()) {
+            mergeCategoryRows(byCategory, rollupRepository.getCategorySummary(userId, split.fromPeriod, split.toPeriod));
+        }
+        for (LocalDate[] edge : split.edges) {
+            mergeCategoryRows(byCategory, expenseRepository.getCategorySummaryByUser(userId, edge[0], edge[1]));
+        }
+
+        List<CategorySummaryDTO> summary = new ArrayList<>(byCategory.values());
+        summary.sort(Comparator.comparing(CategorySummaryDTO::getTotalAmount).reversed());
+        return summary;
+    }
+
+    /**
+     * Per-month totals, most recent month first.
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlySummaryDTO> getMonthlySummary(Long userId, LocalDate startDate, LocalDate endDate) {
+        RangeSplit split = RangeSplit.of(startDate, endDate);
+        Map<YearMonth, MonthlySummaryDTO> byMonth = new HashMap<>();
+        if (split.hasFullMonths()) {
+            mergeMonthlyRows(byMonth, rollupRepository.getMonthlySummary(userId, split.fromPeriod, split.toPeriod));
+        }
+        for (LocalDate[] edge : split.edges) {
+            mergeMonthlyRows(byMonth, expenseRepository.getMonthlySummaryByUser(userId, edge[0], edge[1]));
+        }
+
+        List<MonthlySummaryDTO> summary = new ArrayList<>(byMonth.values());
+        summary.sort(Comparator.comparing(MonthlySummaryDTO::getYear)
+                .thenComparing(MonthlySummaryDTO::getMonth)
+                .reversed());
+        return summary;
+    }
+
+    /**
+     * Recomputes one user's rollups from the raw expense rows.
+     */
+    public void rebuild(Long userId) {
+        rollupRepository.deleteByUserId(userId);
+        rollupRepository.flush();
+        List<ExpenseRollup> rollups = new ArrayList<>();
+        for (Object[] row : expenseRepository.getMonthlyCategoryTotalsByUserId(userId)) {
+            rollups.add(new ExpenseRollup(userId, (Integer) row[0], (Integer) row[1], (Long) row[2],
+                    (BigDecimal) row[3], (Long) row[4]));
+        }
+        rollupRepository.saveAll(rollups);
+    }
+
+    public void rebuildAll() {
+        List<Long> userIds = expenseRepository.findDistinctUserIds();
+        for (Long userId : userIds) {
+            rebuild(userId);
+        }
+        log.info("Rebuilt expense rollups for {} users", userIds.size());
+    }
+
+    /**
+     * Compares one user's rollups with the raw rows and returns the number of mismatched buckets,
+     * rebuilding them when {@code repair} is set.
+     */
+    public int verify(Long userId, boolean repair) {
+        Map<String, Object[]> expected = new HashMap<>();
+        for (Object[] row : expenseRepository.getMonthlyCategoryTotalsByUserId(userId)) {
+            expected.put(bucketKey(row[0], row[1], row[2]), new Object[]{row[3], row[4]});
+        }
+
+        int mismatches = 0;
+        for (ExpenseRollup rollup : rollupRepository.findByUserId(userId)) {
+            Object[] raw = expected.remove(bucketKey(rollup.getYear(), rollup.getMonth(), rollup.getCategoryId()));
+            if (raw == null
+                    || ((BigDecimal) raw[0]).compareTo(rollup.getTotalAmount()) != 0
+                    || !raw[1].equals(rollup.getExpenseCount())) {
+                mismatches++;
+            }
+        }
+        mismatches += expected.size();
+
+        if (mismatches > 0) {
+            log.warn("Found {} mismatched rollup buckets for user {}", mismatches, userId);
+            if (repair) {
+                rebuild(userId);
+            }
+        }
+        return mismatches;
+    }
+
+    public int verifyAll(boolean repair) {
+        int mismatches = 0;
+        for (Long userId : expenseRepository.findDistinctUserIds()) {
+            mismatches += verify(userId, repair);
+        }
+        log.info("Rollup verification finished with {} mismatched buckets", mismatches);
+        return mismatches;
+    }
+
+    private void mergeCategoryRows(Map<Long, CategorySummaryDTO> byCategory, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long categoryId = (Long) row[0];
+            CategorySummaryDTO current = byCategory.get(categoryId);
+            if (current == null) {
+                byCategory.put(categoryId, new CategorySummaryDTO(categoryId, (String) row[1], (BigDecimal) row[2], (Long) row[3]));
+            } else {
+                current.setTotalAmount(current.getTotalAmount().add((BigDecimal) row[2]));
+                current.setExpenseCount(current.getExpenseCount() + (Long) row[3]);
+            }
+        }
+    }
+
+    private void mergeMonthlyRows(Map<YearMonth, MonthlySummaryDTO> byMonth, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            YearMonth period = YearMonth.of((Integer) row[0], (Integer) row[1]);
+            MonthlySummaryDTO current = byMonth.get(period);
+            if (current == null) {
+                byMonth.put(period, new MonthlySummaryDTO((Integer) row[0], (Integer) row[1], (BigDecimal) row[2], (Long) row[3]));
+            } else {
+                current.setTotalAmount(current.getTotalAmount().add((BigDecimal) row[2]));
+                current.setExpenseCount(current.getExpenseCount() + (Long) row[3]);
+            }
+        }
+    }
+
+    private static String bucketKey(Object year, Object month, Object categoryId) {
+        return year + "-" + month + "-" + categoryId;
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Splits an optional [start, end] range into whole months served by rollups and up to two
+     * partial-month edges that must be aggregated from raw rows.
+     */
+    private static final class RangeSplit {
+
+        private Integer fromPeriod;
+        private Integer toPeriod;
+        private final List<LocalDate[]> edges = new ArrayList<>();
+
+        static RangeSplit of(LocalDate startDate, LocalDate endDate) {
+            RangeSplit split = new RangeSplit();
+            if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+                return split;
+            }
+
+            YearMonth firstFull = null;
+            if (startDate != null) {
+                firstFull = startDate.getDayOfMonth() == 1 ? YearMonth.from(startDate) : YearMonth.from(startDate).plusMonths(1);
+            }
+            YearMonth lastFull = null;
+            if (endDate != null) {
+                lastFull = endDate.getDayOfMonth() == endDate.lengthOfMonth() ? YearMonth.from(endDate) : YearMonth.from(endDate).minusMonths(1);
+            }
+
+            if (firstFull != null && lastFull != null && firstFull.isAfter(lastFull)) {
+                // No whole month inside the range: aggregate it entirely from raw rows
+                split.edges.add(new LocalDate[]{startDate, endDate});
+                return split;
+            }
+
+            split.fromPeriod = firstFull != null ? period(firstFull) : 0;
+            split.toPeriod = lastFull != null ? period(lastFull) : Integer.MAX_VALUE;
+            if (startDate != null && startDate.getDayOfMonth() != 1) {
+                split.edges.add(new LocalDate[]{startDate, YearMonth.from(startDate).atEndOfMonth()});
+            }
+            if (endDate != null && endDate.getDayOfMonth() != endDate.lengthOfMonth()) {
+                split.edges.add(new LocalDate[]{YearMonth.from(endDate).atDay(1), endDate});
+            }
+            return split;
+        }
+
+        boolean hasFullMonths() {
+            return fromPeriod != null;
+        }
+
+        private static int period(YearMonth yearMonth) {
+            return yearMonth.getYear() * 12 + yearMonth.getMonthValue() - 1;
+        }
+    }
+}
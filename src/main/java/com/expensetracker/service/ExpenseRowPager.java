@@ -0,0 +1,78 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads matching rows in (date DESC, id DESC) order as keyset pages, each in its own short read-only transaction.
+ * Exports and reports render between pages without holding a connection, so a large PDF or a slow client no
+ * longer pins a pooled connection for the whole download. Unlike a cursor this does not read a single snapshot:
+ * rows written meanwhile may or may not be included, but no row is returned twice.
+ */
+@Component
+public class ExpenseRowPager {
+
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate pageTransaction;
+    private final int pageSize;
+
+    public ExpenseRowPager(ExpenseRepository expenseRepository, PlatformTransactionManager transactionManager,
+                           @Value("${export.page-size:1000}") int pageSize) {
+        this.expenseRepository = expenseRepository;
+        this.pageSize = pageSize;
+        this.pageTransaction = new TransactionTemplate(transactionManager);
+        pageTransaction.setReadOnly(true);
+        pageTransaction.setName("ExpenseRowPager.page");
+    }
+
+    /**
+     * Iterates over the rows matching {@code filter}. Call it outside a transaction, otherwise the pages join
+     * the caller's transaction and its connection stays held.
+     */
+    public Iterator<ExpenseDTO> rows(Specification<Expense> filter) {
+        return new Iterator<>() {
+            private List<ExpenseDTO> page = List.of();
+            private int index;
+            private boolean lastPage;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (lastPage) {
+                    return false;
+                }
+                Specification<Expense> spec = filter;
+                if (!page.isEmpty()) {
+                    ExpenseDTO last = page.get(page.size() - 1);
+                    spec = spec.and(ExpenseSpecifications.after(last.getDate(), last.getId()));
+                }
+                Specification<Expense> pageSpec = spec;
+                page = pageTransaction.execute(status -> expenseRepository.findRows(pageSpec, pageSize));
+                index = 0;
+                lastPage = page.size() < pageSize;
+                return !page.isEmpty();
+            }
+
+            @Override
+            public ExpenseDTO next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++);
+            }
+        };
+    }
+}
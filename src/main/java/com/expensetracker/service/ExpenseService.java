@@ -1,77 +1,132 @@
 package com.expensetracker.service;
 
+import com.expensetracker.cache.SummaryCache;
+import com.expensetracker.dto.BatchResultDTO;
 import com.expensetracker.dto.CategorySummaryDTO;
+import com.expensetracker.dto.ExpenseBatchRequest;
+import com.expensetracker.dto.ExpenseCursor;
 import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.dto.ExpenseFilterDTO;
+import com.expensetracker.dto.ExpensePageDTO;
+import com.expensetracker.dto.ExpensePatchDTO;
 import com.expensetracker.dto.MonthlySummaryDTO;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.event.ExpensesChangedEvent.DailyDelta;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
-import com.expensetracker.model.User;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseSpecifications;
 import com.expensetracker.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Expense reads and writes for one user. Read methods run in read-only transactions, which Spring
+ * executes with Hibernate flush mode {@code MANUAL}, and list rows as DTO projections.
+ */
 @Service
+@Timed(value = "service.calls", histogram = true)
 @RequiredArgsConstructor
 @Transactional
 public class ExpenseService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int BATCH_CHUNK_SIZE = 1000;
+
     private final ExpenseRepository expenseRepository;
+    private final ExpenseRowPager expenseRowPager;
     private final CategoryRepository categoryRepository;
+    private final CategoryDictionary categoryDictionary;
     private final UserRepository userRepository;
+    private final ExpenseRollupService rollupService;
+    private final SummaryCache summaryCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> getAllExpenses(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate) {
+        List<ExpenseDTO> expenses = expenseRepository.findRows(
+                ExpenseSpecifications.filter(userId, categoryId, startDate, endDate));
+        expenses.forEach(this::fillCategoryName);
+        return expenses;
     }
 
-    public List<ExpenseDTO> getAllExpenses(String username, Long categoryId, LocalDate startDate, LocalDate endDate) {
-        User user = getUserByUsername(username);
-        List<Expense> expenses = expenseRepository.findWithFiltersByUser(user, categoryId, startDate, endDate);
-        return expenses.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Returns one keyset page in (date DESC, id DESC) order, starting after the given cursor token.
+     */
+    @Transactional(readOnly = true)
+    public ExpensePageDTO getExpensePage(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                                         String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ExpenseCursor after = cursor == null || cursor.isBlank() ? null : ExpenseCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<ExpenseDTO> expenses = expenseRepository.findRows(
+                ExpenseSpecifications.filter(userId, categoryId, startDate, endDate)
+                        .and(after != null ? ExpenseSpecifications.after(after.getDate(), after.getId()) : null),
+                pageSize + 1);
+
+        boolean hasMore = expenses.size() > pageSize;
+        List<ExpenseDTO> content = hasMore ? expenses.subList(0, pageSize) : expenses;
+        content.forEach(this::fillCategoryName);
+
+        String nextCursor = null;
+        if (hasMore) {
+            ExpenseDTO last = content.get(content.size() - 1);
+            nextCursor = new ExpenseCursor(last.getDate(), last.getId()).encode();
+        }
+        return new ExpensePageDTO(content, content.size(), hasMore, nextCursor);
     }
 
-    public ExpenseDTO getExpenseById(String username, Long id) {
-        User user = getUserByUsername(username);
-        Expense expense = expenseRepository.findByIdAndUser(id, user)
+    @Transactional(readOnly = true)
+    public ExpenseDTO getExpenseById(Long userId, Long id) {
+        Expense expense = expenseRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new EntityNotFoundException("Expense not found with id: " + id));
         return convertToDTO(expense);
     }
 
-    public ExpenseDTO createExpense(String username, ExpenseDTO expenseDTO) {
-        User user = getUserByUsername(username);
-        Category category = categoryRepository.findById(expenseDTO.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + expenseDTO.getCategoryId()));
+    public ExpenseDTO createExpense(Long userId, ExpenseDTO expenseDTO) {
+        categoryDictionary.requireExists(expenseDTO.getCategoryId());
+        Category category = categoryRepository.getReferenceById(expenseDTO.getCategoryId());
 
         Expense expense = new Expense();
         expense.setDescription(expenseDTO.getDescription());
         expense.setAmount(expenseDTO.getAmount());
         expense.setDate(expenseDTO.getDate());
         expense.setCategory(category);
-        expense.setUser(user);
+        // Reference only: the insert needs the foreign key, not a loaded user row
+        expense.setUser(userRepository.getReferenceById(userId));
 
         Expense savedExpense = expenseRepository.save(expense);
+        rollupService.recordCreated(savedExpense);
+        eventPublisher.publishEvent(new ExpensesChangedEvent(userId, List.of(
+                new DailyDelta(savedExpense.getDate(), category.getId(), savedExpense.getAmount(), 1))));
         return convertToDTO(savedExpense);
     }
 
-    public ExpenseDTO updateExpense(String username, Long id, ExpenseDTO expenseDTO) {
-        User user = getUserByUsername(username);
-        Expense expense = expenseRepository.findByIdAndUser(id, user)
+    public ExpenseDTO updateExpense(Long userId, Long id, ExpenseDTO expenseDTO) {
+        Expense expense = expenseRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new EntityNotFoundException("Expense not found with id: " + id));
 
-        Category category = categoryRepository.findById(expenseDTO.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + expenseDTO.getCategoryId()));
+        categoryDictionary.requireExists(expenseDTO.getCategoryId());
+        Category category = categoryRepository.getReferenceById(expenseDTO.getCategoryId());
+
+        LocalDate previousDate = expense.getDate();
+        Long previousCategoryId = expense.getCategory().getId();
+        BigDecimal previousAmount = expense.getAmount();
 
         expense.setDescription(expenseDTO.getDescription());
         expense.setAmount(expenseDTO.getAmount());
@@ -79,60 +134,143 @@ public class ExpenseService {
         expense.setCategory(category);
 
         Expense updatedExpense = expenseRepository.save(expense);
+        rollupService.recordUpdated(previousDate, previousCategoryId, previousAmount, updatedExpense);
+        eventPublisher.publishEvent(new ExpensesChangedEvent(userId, List.of(
+                new DailyDelta(previousDate, previousCategoryId, previousAmount.negate(), -1),
+                new DailyDelta(updatedExpense.getDate(), category.getId(), updatedExpense.getAmount(), 1))));
         return convertToDTO(updatedExpense);
     }
 
-    public void deleteExpense(String username, Long id) {
-        User user = getUserByUsername(username);
-        Expense expense = expenseRepository.findByIdAndUser(id, user)
+    public void deleteExpense(Long userId, Long id) {
+        Expense expense = expenseRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new EntityNotFoundException("Expense not found with id: " + id));
+        rollupService.recordDeleted(expense);
         expenseRepository.delete(expense);
+        eventPublisher.publishEvent(new ExpensesChangedEvent(userId, List.of(
+                new DailyDelta(expense.getDate(), expense.getCategory().getId(), expense.getAmount().negate(), -1))));
     }
 
-    public BigDecimal getTotalExpenses(String username, LocalDate startDate, LocalDate endDate) {
-        User user = getUserByUsername(username);
-        BigDecimal total = expenseRepository.getTotalAmountByUser(user, startDate, endDate);
-        return total != null ? total : BigDecimal.ZERO;
-    }
-
-    public List<CategorySummaryDTO> getCategorySummary(String username, LocalDate startDate, LocalDate endDate) {
-        User user = getUserByUsername(username);
-        List<Object[]> results = expenseRepository.getCategorySummaryByUser(user, startDate, endDate);
-        BigDecimal totalAmount = getTotalExpenses(username, startDate, endDate);
-
-        return results.stream()
-                .map(row -> {
-                    CategorySummaryDTO dto = new CategorySummaryDTO(
-                            (Long) row[0],
-                            (String) row[1],
-                            (BigDecimal) row[2],
-                            (Long) row[3]
-                    );
-                    if (totalAmount.compareTo(BigDecimal.ZERO) > 0) {
-                        dto.setPercentage(dto.getTotalAmount()
-                                .divide(totalAmount, 4, RoundingMode.HALF_UP)
-                                .multiply(BigDecimal.valueOf(100))
-                                .doubleValue());
-                    } else {
-                        dto.setPercentage(0.0);
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
-    }
-
-    public List<MonthlySummaryDTO> getMonthlySummary(String username, LocalDate startDate, LocalDate endDate) {
-        User user = getUserByUsername(username);
-        List<Object[]> results = expenseRepository.getMonthlySummaryByUser(user, startDate, endDate);
-
-        return results.stream()
-                .map(row -> new MonthlySummaryDTO(
-                        (Integer) row[0],
-                        (Integer) row[1],
-                        (BigDecimal) row[2],
-                        (Long) row[3]
-                ))
-                .collect(Collectors.toList());
+    /**
+     * Applies one patch to the selected expenses with set-based updates, in chunks of ids.
+     */
+    public BatchResultDTO batchUpdate(Long userId, ExpenseBatchRequest request) {
+        ExpensePatchDTO patch = request.getPatch();
+        if (patch == null || patch.isEmpty()) {
+            throw new IllegalArgumentException("Patch must set at least one field");
+        }
+        if (patch.getCategoryId() != null) {
+            categoryDictionary.requireExists(patch.getCategoryId());
+        }
+        // Description-only patches do not move amounts between rollup buckets
+        boolean affectsRollups = patch.getAmount() != null || patch.getDate() != null || patch.getCategoryId() != null;
+
+        List<Object[]> before = new ArrayList<>();
+        List<Object[]> after = new ArrayList<>();
+        long affected = 0;
+        for (List<Long> chunk : chunks(resolveSelection(userId, request))) {
+            if (affectsRollups) {
+                before.addAll(expenseRepository.getMonthlyCategoryTotalsByIds(userId, chunk));
+            }
+            affected += expenseRepository.updateByIds(userId, chunk, patch.getDescription(), patch.getAmount(),
+                    patch.getDate(), patch.getCategoryId());
+            if (affectsRollups) {
+                after.addAll(expenseRepository.getMonthlyCategoryTotalsByIds(userId, chunk));
+            }
+        }
+
+        if (affected > 0) {
+            rollupService.recordBulkChange(userId, before, after);
+            eventPublisher.publishEvent(new ExpensesChangedEvent(userId));
+        }
+        return new BatchResultDTO(affected);
+    }
+
+    /**
+     * Deletes the selected expenses with set-based deletes, in chunks of ids.
+     */
+    public BatchResultDTO batchDelete(Long userId, ExpenseBatchRequest request) {
+        List<Object[]> before = new ArrayList<>();
+        long affected = 0;
+        for (List<Long> chunk : chunks(resolveSelection(userId, request))) {
+            before.addAll(expenseRepository.getMonthlyCategoryTotalsByIds(userId, chunk));
+            affected += expenseRepository.deleteByIds(userId, chunk);
+        }
+
+        if (affected > 0) {
+            rollupService.recordBulkChange(userId, before, List.of());
+            eventPublisher.publishEvent(new ExpensesChangedEvent(userId));
+        }
+        return new BatchResultDTO(affected);
+    }
+
+    private List<Long> resolveSelection(Long userId, ExpenseBatchRequest request) {
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new IllegalArgumentException("Select expenses with either ids or a filter");
+        }
+        if (request.getIds() != null) {
+            return new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+        }
+        ExpenseFilterDTO filter = request.getFilter();
+        if (!filter.hasCriteria() && !filter.isAll()) {
+            throw new IllegalArgumentException(
+                    "Filter needs categoryId, startDate or endDate; set all to true to select every expense");
+        }
+        return expenseRepository.findIds(ExpenseSpecifications.filter(
+                userId, filter.getCategoryId(), filter.getStartDate(), filter.getEndDate()));
+    }
+
+    // Keeps IN lists within the bind parameter limits of every supported database
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BATCH_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalExpenses(Long userId, LocalDate startDate, LocalDate endDate) {
+        return summaryCache.get(userId, "total", startDate, endDate,
+                () -> rollupService.getTotalAmount(userId, startDate, endDate));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySummaryDTO> getCategorySummary(Long userId, LocalDate startDate, LocalDate endDate) {
+        return summaryCache.get(userId, "by-category", startDate, endDate, () -> {
+            List<CategorySummaryDTO> summary = rollupService.getCategorySummary(userId, startDate, endDate);
+            // The category sums already add up to the grand total, so no second aggregate query is needed
+            ExpenseAggregator.applyPercentages(summary);
+            return List.copyOf(summary);
+        });
+    }
+
+    /**
+     * Expense rows for a report, newest first, with category names filled in. Rows are read page by page as the
+     * iterator advances, each page in its own short transaction, so call this outside a transaction.
+     */
+    // SUPPORTS overrides the class-level default, so creating the iterator does not open a transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Iterator<ExpenseDTO> reportRows(Long userId, LocalDate startDate, LocalDate endDate) {
+        Iterator<ExpenseDTO> rows = expenseRowPager.rows(ExpenseSpecifications.filter(userId, null, startDate, endDate));
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public ExpenseDTO next() {
+                ExpenseDTO dto = rows.next();
+                fillCategoryName(dto);
+                return dto;
+            }
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public List<MonthlySummaryDTO> getMonthlySummary(Long userId, LocalDate startDate, LocalDate endDate) {
+        return summaryCache.get(userId, "monthly", startDate, endDate,
+                () -> List.copyOf(rollupService.getMonthlySummary(userId, startDate, endDate)));
     }
 
     private ExpenseDTO convertToDTO(Expense expense) {
@@ -142,7 +280,11 @@ public class ExpenseService {
         dto.setAmount(expense.getAmount());
         dto.setDate(expense.getDate());
         dto.setCategoryId(expense.getCategory().getId());
-        dto.setCategoryName(expense.getCategory().getName());
+        fillCategoryName(dto);
         return dto;
     }
+
+    private void fillCategoryName(ExpenseDTO dto) {
+        dto.setCategoryName(categoryDictionary.nameOf(dto.getCategoryId()));
+    }
 }
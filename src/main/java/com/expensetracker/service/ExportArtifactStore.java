@@ -0,0 +1,92 @@
+package com.expensetracker.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Local disk store for rendered export files. Artifacts are written to a temporary file and moved into
+ * place only once complete, so a download never sees a partially written export.
+ */
+@Component
+@Slf4j
+public class ExportArtifactStore {
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    @Value("${export.jobs.directory:./data/exports}")
+    private String directory;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        // Job metadata lives in memory, so artifacts left over from a previous run can never be claimed again
+        try (Stream<Path> leftovers = Files.list(root)) {
+            leftovers.forEach(this::delete);
+        }
+    }
+
+    public Path resolve(String jobId, String extension) {
+        return root.resolve(jobId + "." + extension);
+    }
+
+    public OutputStream openForWrite(Path artifact) throws IOException {
+        return Files.newOutputStream(partialPath(artifact),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    public long commit(Path artifact) throws IOException {
+        Files.move(partialPath(artifact), artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(artifact);
+    }
+
+    public boolean exists(Path artifact) {
+        return Files.isRegularFile(artifact);
+    }
+
+    public void delete(Path artifact) {
+        try {
+            Files.deleteIfExists(artifact);
+            Files.deleteIfExists(partialPath(artifact));
+        } catch (IOException e) {
+            log.warn("Failed to delete export artifact {}: {}", artifact, e.getMessage());
+        }
+    }
+
+    /**
+     * Copies {@code count} bytes starting at {@code position} using {@link FileChannel#transferTo}, which lets
+     * the kernel move the data without copying it through the heap when the target channel allows it.
+     */
+    public void transferTo(Path artifact, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(artifact, StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < count) {
+                long written = channel.transferTo(position + transferred, count - transferred, target);
+                if (written <= 0) {
+                    break;
+                }
+                transferred += written;
+            }
+        }
+    }
+
+    private Path partialPath(Path artifact) {
+        return artifact.resolveSibling(artifact.getFileName() + PARTIAL_SUFFIX);
+    }
+}
@@ -0,0 +1,81 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExportJobDTO;
+import com.expensetracker.model.ExportFormat;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory state of one export job. Status and progress are written by the worker thread and read
+ * by polling requests, hence the volatile fields.
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Long userId;
+    private final String requestKey;
+    private final ExportFormat format;
+    private final Long categoryId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final long totalRows;
+    private final Path artifact;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long rowsWritten;
+    private volatile Long sizeBytes;
+    private volatile LocalDateTime completedAt;
+    private volatile LocalDateTime expiresAt;
+    private volatile String error;
+
+    ExportJob(String id, Long userId, String requestKey, ExportFormat format, Long categoryId,
+              LocalDate startDate, LocalDate endDate, long totalRows, Path artifact) {
+        this.id = id;
+        this.userId = userId;
+        this.requestKey = requestKey;
+        this.format = format;
+        this.categoryId = categoryId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.totalRows = totalRows;
+        this.artifact = artifact;
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    void updateProgress(long rowsWritten) {
+        this.rowsWritten = rowsWritten;
+    }
+
+    void markCompleted(long sizeBytes, LocalDateTime expiresAt) {
+        this.sizeBytes = sizeBytes;
+        this.completedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String error, LocalDateTime expiresAt) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.status = Status.FAILED;
+    }
+
+    boolean isExpired(LocalDateTime now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public ExportJobDTO toDTO() {
+        return new ExportJobDTO(id, format, status.name(), rowsWritten, totalRows, sizeBytes,
+                createdAt, completedAt, expiresAt, error);
+    }
+}
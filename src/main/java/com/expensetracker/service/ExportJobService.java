@@ -0,0 +1,194 @@
+package com.expensetracker.service;
+
+import com.expensetracker.datasource.RoutingContext;
+import com.expensetracker.dto.ExportJobDTO;
+import com.expensetracker.dto.ExportJobRequest;
+import com.expensetracker.event.ExpensesChangedEvent;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs exports in the background on a bounded worker pool and keeps the rendered files in the
+ * {@link ExportArtifactStore} until they expire. Identical requests share one job while it is
+ * queued, running or its artifact is still fresh, until the user's expenses change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportJobService {
+
+    private final ExportService exportService;
+    private final ExportArtifactStore artifactStore;
+    private final ThreadPoolExecutor exportJobExecutor;
+
+    @Value("${export.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${export.jobs.artifact-ttl:3600000}")
+    private long artifactTtl;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ExportJob> jobsByRequest = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock submitLock = new ReentrantLock();
+
+    public ExportJobDTO submit(Long userId, ExportJobRequest request) {
+        String requestKey = String.join("|", String.valueOf(userId), request.getFormat().name(),
+                String.valueOf(request.getCategoryId()),
+                String.valueOf(request.getStartDate()),
+                String.valueOf(request.getEndDate()));
+
+        ExportJob existing = jobsByRequest.get(requestKey);
+        if (existing != null && isReusable(existing)) {
+            return existing.toDTO();
+        }
+
+        long totalRows = exportService.countRows(
+                userId, request.getCategoryId(), request.getStartDate(), request.getEndDate());
+
+        submitLock.lock();
+        try {
+            existing = jobsByRequest.get(requestKey);
+            if (existing != null && isReusable(existing)) {
+                return existing.toDTO();
+            }
+            if (exportJobExecutor.getQueue().size() >= queueCapacity) {
+                throw new RejectedExecutionException("Too many exports are queued, please try again later");
+            }
+
+            String id = UUID.randomUUID().toString();
+            ExportJob job = new ExportJob(id, userId, requestKey, request.getFormat(), request.getCategoryId(),
+                    request.getStartDate(), request.getEndDate(), totalRows,
+                    artifactStore.resolve(id, request.getFormat().getExtension()));
+            jobs.put(id, job);
+            jobsByRequest.put(requestKey, job);
+            exportJobExecutor.execute(new PrioritizedTask(totalRows, sequence.incrementAndGet(), () -> run(job)));
+            return job.toDTO();
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    public ExportJobDTO getJob(Long userId, String id) {
+        return findJob(userId, id).toDTO();
+    }
+
+    /**
+     * Returns a job whose artifact is ready to be downloaded.
+     */
+    public ExportJob getCompletedJob(Long userId, String id) {
+        ExportJob job = findJob(userId, id);
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new IllegalStateException("Export job is not completed, current status: " + job.getStatus());
+        }
+        if (job.isExpired(LocalDateTime.now()) || !artifactStore.exists(job.getArtifact())) {
+            throw new EntityNotFoundException("Export artifact has expired for job: " + id);
+        }
+        return job;
+    }
+
+    /**
+     * Stops sharing the user's jobs with later requests once a write commits; jobs already handed out
+     * can still be downloaded by id until they expire.
+     */
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        jobsByRequest.values().removeIf(job -> job.getUserId().equals(event.getUserId()));
+    }
+
+    @Scheduled(fixedDelayString = "${export.jobs.sweep-interval:300000}")
+    public void sweepExpiredArtifacts() {
+        LocalDateTime now = LocalDateTime.now();
+        int swept = 0;
+        for (ExportJob job : jobs.values()) {
+            if (job.isExpired(now)) {
+                jobs.remove(job.getId());
+                jobsByRequest.remove(job.getRequestKey(), job);
+                artifactStore.delete(job.getArtifact());
+                swept++;
+            }
+        }
+        if (swept > 0) {
+            log.info("Swept {} expired export jobs", swept);
+        }
+    }
+
+    private ExportJob findJob(Long userId, String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new EntityNotFoundException("Export job not found with id: " + id);
+        }
+        return job;
+    }
+
+    private boolean isReusable(ExportJob job) {
+        return switch (job.getStatus()) {
+            case QUEUED, RUNNING -> true;
+            case COMPLETED -> !job.isExpired(LocalDateTime.now()) && artifactStore.exists(job.getArtifact());
+            case FAILED -> false;
+        };
+    }
+
+    private void run(ExportJob job) {
+        job.markRunning();
+        // Lets the job's read-only transactions use a replica, unless the user has just written
+        try {
+            long size = RoutingContext.callAs(job.getUserId(), () -> {
+                try (OutputStream outputStream = new BufferedOutputStream(artifactStore.openForWrite(job.getArtifact()))) {
+                    exportService.write(job.getFormat(), job.getUserId(), job.getCategoryId(),
+                            job.getStartDate(), job.getEndDate(), outputStream, job::updateProgress);
+                }
+                return artifactStore.commit(job.getArtifact());
+            });
+            job.markCompleted(size, expiry());
+            log.info("Export job {} completed: {} rows, {} bytes", job.getId(), job.getRowsWritten(), size);
+        } catch (Exception e) {
+            log.error("Export job {} failed: {}", job.getId(), e.getMessage());
+            artifactStore.delete(job.getArtifact());
+            job.markFailed(e.getMessage(), expiry());
+        }
+    }
+
+    private LocalDateTime expiry() {
+        return LocalDateTime.now().plus(artifactTtl, ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Orders queued jobs smallest-first by estimated row count, then in submission order.
+     */
+    @RequiredArgsConstructor
+    private static class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+
+        private final long estimatedRows;
+        private final long sequence;
+        private final Runnable task;
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byRows = Long.compare(estimatedRows, other.estimatedRows);
+            return byRows != 0 ? byRows : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.expensetracker.service;
 
-import com.expensetracker.model.Expense;
-import com.expensetracker.model.User;
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.model.ExportFormat;
 import com.expensetracker.repository.ExpenseRepository;
-import com.expensetracker.repository.UserRepository;
+import com.expensetracker.repository.ExpenseSpecifications;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -14,65 +14,113 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.opencsv.CSVWriter;
-import jakarta.persistence.EntityNotFoundException;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.LongConsumer;
 
+/**
+ * Writes exports straight to the caller's stream while reading projected rows in keyset pages, so memory use
+ * does not depend on the number of exported expenses. Writers run outside a transaction: each page is read in
+ * a short one of its own, and no connection is held while rows are rendered or the stream blocks.
+ */
 @Service
+@Timed(value = "service.calls", histogram = true)
 @RequiredArgsConstructor
 public class ExportService {
 
+    private static final String[] HEADERS = {"ID", "Description", "Amount", "Date", "Category"};
+    private static final int[] EXCEL_COLUMN_WIDTHS = {10, 40, 14, 12, 22};
+    private static final int EXCEL_ROW_WINDOW = 100;
+    private static final int PDF_FLUSH_INTERVAL = 100;
+    private static final LongConsumer NO_PROGRESS = rowsWritten -> { };
+
     private final ExpenseRepository expenseRepository;
-    private final UserRepository userRepository;
+    private final ExpenseRowPager expenseRowPager;
+    private final CategoryDictionary categoryDictionary;
+    private final MeterRegistry meterRegistry;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+    @Transactional(readOnly = true)
+    public long countRows(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate) {
+        return expenseRepository.count(ExpenseSpecifications.filter(userId, categoryId, startDate, endDate));
     }
 
-    public byte[] exportToCSV(String username, Long categoryId, LocalDate startDate, LocalDate endDate) throws Exception {
-        User user = getUserByUsername(username);
-        List<Expense> expenses = expenseRepository.findWithFiltersByUser(user, categoryId, startDate, endDate);
-        
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-        CSVWriter csvWriter = new CSVWriter(writer);
+    /**
+     * Renders an export in the given format, reporting the number of rows written so far to {@code progress}.
+     */
+    public void write(ExportFormat format, Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                      OutputStream outputStream, LongConsumer progress) throws IOException {
+        switch (format) {
+            case CSV -> writeCSV(userId, categoryId, startDate, endDate, outputStream, progress);
+            case EXCEL -> writeExcel(userId, categoryId, startDate, endDate, outputStream, progress);
+            case PDF -> writePDF(userId, categoryId, startDate, endDate, outputStream, progress);
+        }
+    }
+
+    public void writeCSV(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                         OutputStream outputStream) throws IOException {
+        writeCSV(userId, categoryId, startDate, endDate, outputStream, NO_PROGRESS);
+    }
+
+    public void writeExcel(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                           OutputStream outputStream) throws IOException {
+        writeExcel(userId, categoryId, startDate, endDate, outputStream, NO_PROGRESS);
+    }
+
+    public void writePDF(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                         OutputStream outputStream) throws IOException {
+        writePDF(userId, categoryId, startDate, endDate, outputStream, NO_PROGRESS);
+    }
 
-        // Write header
-        String[] header = {"ID", "Description", "Amount", "Date", "Category"};
-        csvWriter.writeNext(header);
+    public void writeCSV(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                         OutputStream outputStream, LongConsumer progress) throws IOException {
+        CountingOutputStream counted = new CountingOutputStream(outputStream);
+        CSVWriter csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(counted, StandardCharsets.UTF_8)));
+        long rowCount = 0;
+        csvWriter.writeNext(HEADERS);
 
-        // Write data
-        for (Expense expense : expenses) {
+        Iterator<ExpenseDTO> iterator = rows(userId, categoryId, startDate, endDate);
+        while (iterator.hasNext()) {
+            ExpenseDTO expense = iterator.next();
             String[] row = {
                     expense.getId().toString(),
                     expense.getDescription(),
                     expense.getAmount().toString(),
                     expense.getDate().format(dateFormatter),
-                    expense.getCategory().getName()
+                    categoryDictionary.nameOf(expense.getCategoryId())
             };
             csvWriter.writeNext(row);
+            progress.accept(++rowCount);
         }
 
-        csvWriter.close();
-        return outputStream.toByteArray();
+        csvWriter.flush();
+        recordExport(ExportFormat.CSV, rowCount, counted.bytes);
     }
 
-    public byte[] exportToExcel(String username, Long categoryId, LocalDate startDate, LocalDate endDate) throws Exception {
-        User user = getUserByUsername(username);
-        List<Expense> expenses = expenseRepository.findWithFiltersByUser(user, categoryId, startDate, endDate);
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
+    public void writeExcel(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                           OutputStream outputStream, LongConsumer progress) throws IOException {
+        // Only the last EXCEL_ROW_WINDOW rows stay in memory; older rows are flushed to a temp file
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        CountingOutputStream counted = new CountingOutputStream(outputStream);
+        int rowNum = 1;
+        try (workbook) {
             Sheet sheet = workbook.createSheet("Expenses");
 
             // Create header style
@@ -83,43 +131,44 @@ public class ExportService {
             headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
             headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
 
+            // Fixed column widths; autoSizeColumn cannot see rows already flushed out of the window
+            for (int i = 0; i < EXCEL_COLUMN_WIDTHS.length; i++) {
+                sheet.setColumnWidth(i, EXCEL_COLUMN_WIDTHS[i] * 256);
+            }
+
             // Create header row
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"ID", "Description", "Amount", "Date", "Category"};
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < HEADERS.length; i++) {
                 org.apache.poi.ss.usermodel.Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(HEADERS[i]);
                 cell.setCellStyle(headerStyle);
             }
 
             // Create data rows
-            int rowNum = 1;
-            for (Expense expense : expenses) {
+            Iterator<ExpenseDTO> iterator = rows(userId, categoryId, startDate, endDate);
+            while (iterator.hasNext()) {
+                ExpenseDTO expense = iterator.next();
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(expense.getId());
                 row.createCell(1).setCellValue(expense.getDescription());
                 row.createCell(2).setCellValue(expense.getAmount().doubleValue());
                 row.createCell(3).setCellValue(expense.getDate().format(dateFormatter));
-                row.createCell(4).setCellValue(expense.getCategory().getName());
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+                row.createCell(4).setCellValue(categoryDictionary.nameOf(expense.getCategoryId()));
+                progress.accept(rowNum - 1);
             }
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
+            workbook.write(counted);
+        } finally {
+            workbook.dispose();
         }
+        recordExport(ExportFormat.EXCEL, rowNum - 1L, counted.bytes);
     }
 
-    public byte[] exportToPDF(String username, Long categoryId, LocalDate startDate, LocalDate endDate) throws Exception {
-        User user = getUserByUsername(username);
-        List<Expense> expenses = expenseRepository.findWithFiltersByUser(user, categoryId, startDate, endDate);
-        
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(outputStream);
+    public void writePDF(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate,
+                         OutputStream outputStream, LongConsumer progress) throws IOException {
+        CountingOutputStream counted = new CountingOutputStream(outputStream);
+        PdfWriter writer = new PdfWriter(counted);
+        writer.setCloseStream(false);
         PdfDocument pdfDocument = new PdfDocument(writer);
         Document document = new Document(pdfDocument);
 
@@ -144,41 +193,88 @@ public class ExportService {
                 .setTextAlignment(TextAlignment.CENTER)
                 .setMarginBottom(20));
 
-        // Create table
-        Table table = new Table(UnitValue.createPercentArray(new float[]{1, 3, 2, 2, 2}))
+        // Large-table mode: the table is added up front and its rows are laid out and flushed in batches
+        Table table = new Table(UnitValue.createPercentArray(new float[]{1, 3, 2, 2, 2}), true)
                 .setWidth(UnitValue.createPercentValue(100));
 
         // Header cells
-        String[] headers = {"ID", "Description", "Amount", "Date", "Category"};
-        for (String header : headers) {
+        for (String header : HEADERS) {
             Cell headerCell = new Cell()
                     .add(new Paragraph(header).setBold())
                     .setBackgroundColor(ColorConstants.LIGHT_GRAY)
                     .setTextAlignment(TextAlignment.CENTER);
             table.addHeaderCell(headerCell);
         }
+        document.add(table);
 
         // Data cells
-        for (Expense expense : expenses) {
+        ExpenseAggregator aggregator = new ExpenseAggregator();
+        long rowCount = 0;
+        Iterator<ExpenseDTO> iterator = rows(userId, categoryId, startDate, endDate);
+        while (iterator.hasNext()) {
+            ExpenseDTO expense = iterator.next();
             table.addCell(new Cell().add(new Paragraph(expense.getId().toString())));
             table.addCell(new Cell().add(new Paragraph(expense.getDescription())));
             table.addCell(new Cell().add(new Paragraph("₹" + expense.getAmount().toString())));
             table.addCell(new Cell().add(new Paragraph(expense.getDate().format(dateFormatter))));
-            table.addCell(new Cell().add(new Paragraph(expense.getCategory().getName())));
-        }
+            String categoryName = categoryDictionary.nameOf(expense.getCategoryId());
+            table.addCell(new Cell().add(new Paragraph(categoryName)));
+            aggregator.add(expense.getCategoryId(), categoryName, expense.getAmount());
+            progress.accept(++rowCount);
 
-        document.add(table);
+            if (rowCount % PDF_FLUSH_INTERVAL == 0) {
+                table.flush();
+            }
+        }
+        table.complete();
 
         // Total
-        double total = expenses.stream()
-                .mapToDouble(e -> e.getAmount().doubleValue())
-                .sum();
-        document.add(new Paragraph("Total: ₹" + String.format("%.2f", total))
+        document.add(new Paragraph("Total: ₹" + aggregator.getTotalAmount().toPlainString())
                 .setBold()
                 .setTextAlignment(TextAlignment.RIGHT)
                 .setMarginTop(20));
 
         document.close();
-        return outputStream.toByteArray();
+        recordExport(ExportFormat.PDF, rowCount, counted.bytes);
+    }
+
+    private Iterator<ExpenseDTO> rows(Long userId, Long categoryId, LocalDate startDate, LocalDate endDate) {
+        return expenseRowPager.rows(ExpenseSpecifications.filter(userId, categoryId, startDate, endDate));
+    }
+
+    private void recordExport(ExportFormat format, long rows, long bytes) {
+        String formatTag = format.name().toLowerCase(Locale.ROOT);
+        meterRegistry.counter("exports.rows", "format", formatTag).increment(rows);
+        meterRegistry.counter("exports.bytes", "format", formatTag).increment(bytes);
+        meterRegistry.summary("exports.size.bytes", "format", formatTag).record(bytes);
+    }
+
+    /**
+     * Counts bytes on their way to the caller's stream; closing it does not close the target.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long bytes;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytes += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
     }
 }
@@ -6,12 +6,15 @@ import com.expensetracker.dto.RegisterRequest;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.UserRepository;
 import com.expensetracker.security.JwtUtil;
+import com.expensetracker.security.TokenRevocationRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +25,7 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationRegistry revocationRegistry;
 
     public AuthResponse register(RegisterRequest request) {
         // Check if username already exists
@@ -44,7 +48,7 @@ public class UserService {
         userRepository.save(user);
 
         // Generate token
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), tokenVersion(user));
 
         return new AuthResponse(token, user.getUsername(), user.getEmail());
     }
@@ -63,13 +67,35 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         // Generate token
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), tokenVersion(user));
 
         return new AuthResponse(token, user.getUsername(), user.getEmail());
     }
 
-    public User getCurrentUser(String username) {
-        return userRepository.findByUsername(username)
+    /**
+     * Revokes every token issued to the user so far, on all devices.
+     */
+    public void logoutAll(Long userId) {
+        User user = getCurrentUser(userId);
+        int version = tokenVersion(user) + 1;
+        user.setTokenVersion(version);
+        userRepository.save(user);
+        // Only reject the old tokens locally once the new version is durable; a rollback leaves them valid
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revocationRegistry.revoke(userId, version);
+            }
+        });
+    }
+
+    private static int tokenVersion(User user) {
+        // Rows created before token versioning have no version yet
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
+
+    public User getCurrentUser(Long userId) {
+        return userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
     }
 }
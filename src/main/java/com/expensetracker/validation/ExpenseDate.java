@@ -0,0 +1,26 @@
+package com.expensetracker.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An expense date between {@link ExpenseDateValidator#EARLIEST} and one year from today. Per-day summaries
+ * size their arrays by the span of a user's dates, so a mistyped year must not reach the database.
+ * {@code null} is valid; combine with {@code @NotNull} where the date is required.
+ */
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = ExpenseDateValidator.class)
+public @interface ExpenseDate {
+
+    String message() default "Date must be between 1900-01-01 and one year from today";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
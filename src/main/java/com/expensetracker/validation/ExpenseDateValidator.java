@@ -0,0 +1,16 @@
+package com.expensetracker.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.time.LocalDate;
+
+public class ExpenseDateValidator implements ConstraintValidator<ExpenseDate, LocalDate> {
+
+    public static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+
+    @Override
+    public boolean isValid(LocalDate date, ConstraintValidatorContext context) {
+        return date == null || (!date.isBefore(EARLIEST) && !date.isAfter(LocalDate.now().plusYears(1)));
+    }
+}
@@ -0,0 +1,116 @@
+package com.expensetracker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link Money} must give exactly the results of the {@code BigDecimal} arithmetic it replaced.
+ */
+class MoneyTest {
+
+    @Test
+    void convertsToAndFromMinorUnits() {
+        assertThat(Money.toMinorUnits(new BigDecimal("12.34"))).isEqualTo(1234);
+        assertThat(Money.toMinorUnits(new BigDecimal("12.3"))).isEqualTo(1230);
+        assertThat(Money.toMinorUnits(new BigDecimal("12"))).isEqualTo(1200);
+        assertThat(Money.toMinorUnits(new BigDecimal("-0.07"))).isEqualTo(-7);
+        assertThat(Money.toMinorUnits(BigDecimal.ZERO)).isZero();
+
+        assertThat(Money.toBigDecimal(1234)).isEqualTo(new BigDecimal("12.34"));
+        assertThat(Money.toBigDecimal(-5)).isEqualTo(new BigDecimal("-0.05"));
+        assertThat(Money.toBigDecimal(0)).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void roundsExtraDecimalsHalfUp() {
+        assertThat(Money.toMinorUnits(new BigDecimal("0.005"))).isEqualTo(1);
+        assertThat(Money.toMinorUnits(new BigDecimal("0.0049"))).isZero();
+        assertThat(Money.toMinorUnits(new BigDecimal("-0.005"))).isEqualTo(-1);
+        assertThat(Money.toMinorUnits(new BigDecimal("12.345"))).isEqualTo(1235);
+    }
+
+    @Test
+    void rejectsAmountsBeyondLongMinorUnits() {
+        assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("1E17")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void percentageRoundsHalfUpToTwoDecimals() {
+        assertThat(Money.percentage(1, 3)).isEqualTo(33.33);
+        assertThat(Money.percentage(2, 3)).isEqualTo(66.67);
+        assertThat(Money.percentage(1, 8)).isEqualTo(12.5);
+        assertThat(Money.percentage(5, 5)).isEqualTo(100.0);
+        // 1 / 20000 = 0.00005, a tie at four decimals of the ratio
+        assertThat(Money.percentage(1, 20_000)).isEqualTo(0.01);
+        assertThat(Money.percentage(-1, 20_000)).isEqualTo(-0.01);
+        assertThat(Money.percentage(1, 20_001)).isEqualTo(0.0);
+    }
+
+    @Test
+    void percentageOfNonPositiveTotalIsZero() {
+        assertThat(Money.percentage(100, 0)).isEqualTo(0.0);
+        assertThat(Money.percentage(100, -100)).isEqualTo(0.0);
+    }
+
+    @Test
+    void percentageFallsBackToBigDecimalForHugeParts() {
+        assertThat(Money.percentage(Long.MAX_VALUE / 2, Long.MAX_VALUE)).isEqualTo(50.0);
+        assertThat(Money.percentage(Long.MAX_VALUE, Long.MAX_VALUE)).isEqualTo(100.0);
+    }
+
+    @Test
+    void divideRoundsHalfAwayFromZero() {
+        assertThat(Money.divide(7, 3)).isEqualTo(2);
+        assertThat(Money.divide(8, 3)).isEqualTo(3);
+        assertThat(Money.divide(5, 2)).isEqualTo(3);
+        assertThat(Money.divide(-5, 2)).isEqualTo(-3);
+        assertThat(Money.divide(5, -2)).isEqualTo(-3);
+        assertThat(Money.divide(-5, -2)).isEqualTo(3);
+        assertThat(Money.divide(-7, 3)).isEqualTo(-2);
+        assertThat(Money.divide(0, 7)).isZero();
+        assertThat(Money.divide(Long.MAX_VALUE, 2)).isEqualTo(Long.MAX_VALUE / 2 + 1);
+        assertThat(Money.divide(Long.MAX_VALUE, Long.MAX_VALUE)).isEqualTo(1);
+    }
+
+    @Test
+    void matchesBigDecimalArithmeticOnRandomAmounts() {
+        Random random = new Random(42L);
+        // Negative parts cover comparison deltas; small totals exercise ties in the half-up rounding
+        for (int i = 0; i < 200_000; i++) {
+            long total = 1 + (i % 2 == 0 ? random.nextInt(1000) : random.nextLong(1_000_000_000_000L));
+            long part = random.nextLong(-2 * total, 2 * total);
+            assertThat(Money.percentage(part, total))
+                    .as("%d / %d", part, total)
+                    .isEqualTo(percentageBigDecimal(Money.toBigDecimal(part), Money.toBigDecimal(total)));
+
+            long days = 1 + random.nextInt(3660);
+            assertThat(Money.toBigDecimal(Money.divide(part, days)))
+                    .as("%d / %d", part, days)
+                    .isEqualTo(Money.toBigDecimal(part).divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    void roundTripsRandomAmounts() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 100_000; i++) {
+            long minorUnits = random.nextLong(-10_000_000_000_000L, 10_000_000_000_000L);
+            assertThat(Money.toMinorUnits(Money.toBigDecimal(minorUnits))).isEqualTo(minorUnits);
+        }
+    }
+
+    // The BigDecimal percentage that Money.percentage replaced
+    private static double percentageBigDecimal(BigDecimal part, BigDecimal total) {
+        if (total.compareTo(BigDecimal.ZERO) <= 0) {
+            return 0.0;
+        }
+        return part.divide(total, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).doubleValue();
+    }
+}
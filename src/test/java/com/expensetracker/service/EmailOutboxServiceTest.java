@@ -0,0 +1,175 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.EmailDeliveryDTO;
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.dto.RegisterRequest;
+import com.expensetracker.model.EmailOutboxMessage;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.EmailOutboxRepository;
+import com.expensetracker.repository.UserRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delivers queued report emails through the scheduled outbox poller to an in-process GreenMail SMTP server.
+ */
+@SpringBootTest(properties = {
+        "spring.profiles.active=h2",
+        "spring.datasource.url=jdbc:h2:mem:email-outbox-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.debug=false",
+        "email.outbox.poll-interval=100",
+        "export.jobs.directory=${java.io.tmpdir}/expense-tracker-test-exports"
+})
+class EmailOutboxServiceTest {
+
+    private static final long DELIVERY_TIMEOUT_MILLIS = 10_000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP).withPerMethodLifecycle(false);
+
+    @Autowired
+    private EmailOutboxService outboxService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void purgeMailboxes() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @Test
+    void deliversQueuedReportAndMarksItSent() throws Exception {
+        User user = registerUser();
+        expenseService.createExpense(user.getId(), expense("Team lunch", "12.50", LocalDate.now().minusDays(2)));
+        expenseService.createExpense(user.getId(), expense("Train ticket", "7.25", LocalDate.now().minusDays(1)));
+
+        EmailDeliveryDTO queued = outboxService.enqueueExpenseReport(user.getId(), null, null);
+        assertThat(queued.getStatus()).isEqualTo("PENDING");
+
+        assertThat(greenMail.waitForIncomingEmail(DELIVERY_TIMEOUT_MILLIS, 1)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        MimeMessage message = received[0];
+        assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
+        assertThat(message.getSubject()).isEqualTo("Expense Report: All Time Summary");
+        assertThat(html(message))
+                .contains("Team lunch", "Train ticket", "19.75")
+                .contains(user.getUsername());
+
+        EmailDeliveryDTO delivered = awaitStatus(user.getId(), queued.getTrackingId(), "SENT");
+        assertThat(delivered.getAttempts()).isEqualTo(1);
+        assertThat(delivered.getSentAt()).isNotNull();
+        assertThat(delivered.getError()).isNull();
+    }
+
+    @Test
+    void outcomeIsOnlyRecordedUnderTheClaimingLease() {
+        User user = registerUser();
+        // A lease in the future, so the poller leaves the message alone
+        LocalDateTime leaseUntil = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.MILLIS);
+        EmailOutboxMessage claimed = transactionTemplate.execute(status -> {
+            EmailOutboxMessage message = new EmailOutboxMessage();
+            message.setTrackingId(UUID.randomUUID().toString());
+            message.setUserId(user.getId());
+            message.setRecipient(user.getEmail());
+            message.setSubject("Expense Report: All Time Summary");
+            message.setStatus(EmailOutboxMessage.Status.SENDING);
+            message.setAttempts(1);
+            message.setNextAttemptAt(leaseUntil);
+            return outboxRepository.save(message);
+        });
+
+        // A worker whose lease was taken over by a later claim must not overwrite that claim
+        Integer stale = transactionTemplate.execute(status -> outboxRepository.recordOutcome(claimed.getId(),
+                EmailOutboxMessage.Status.SENDING, leaseUntil.minusMinutes(5), EmailOutboxMessage.Status.SENT,
+                leaseUntil, null, LocalDateTime.now(), LocalDateTime.now()));
+        assertThat(stale).isZero();
+        assertThat(outboxRepository.findById(claimed.getId()).orElseThrow().getStatus())
+                .isEqualTo(EmailOutboxMessage.Status.SENDING);
+
+        Integer current = transactionTemplate.execute(status -> outboxRepository.recordOutcome(claimed.getId(),
+                EmailOutboxMessage.Status.SENDING, leaseUntil, EmailOutboxMessage.Status.SENT,
+                leaseUntil, null, LocalDateTime.now(), LocalDateTime.now()));
+        assertThat(current).isOne();
+        assertThat(outboxRepository.findById(claimed.getId()).orElseThrow().getStatus())
+                .isEqualTo(EmailOutboxMessage.Status.SENT);
+    }
+
+    private User registerUser() {
+        String username = "mail" + UUID.randomUUID().toString().substring(0, 8);
+        userService.register(new RegisterRequest(username, username + "@example.com", "secret123"));
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+
+    private static ExpenseDTO expense(String description, String amount, LocalDate date) {
+        ExpenseDTO dto = new ExpenseDTO();
+        dto.setDescription(description);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setDate(date);
+        dto.setCategoryId(1L);
+        return dto;
+    }
+
+    private EmailDeliveryDTO awaitStatus(Long userId, String trackingId, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MILLIS;
+        EmailDeliveryDTO delivery = outboxService.getDelivery(userId, trackingId);
+        while (!delivery.getStatus().equals(status) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            delivery = outboxService.getDelivery(userId, trackingId);
+        }
+        assertThat(delivery.getStatus()).isEqualTo(status);
+        return delivery;
+    }
+
+    private static String html(Part part) throws Exception {
+        if (part.isMimeType("text/html")) {
+            return (String) part.getContent();
+        }
+        if (part.getContent() instanceof Multipart multipart) {
+            for (int i = 0; i < multipart.getCount(); i++) {
+                String html = html(multipart.getBodyPart(i));
+                if (html != null) {
+                    return html;
+                }
+            }
+        }
+        return null;
+    }
+}
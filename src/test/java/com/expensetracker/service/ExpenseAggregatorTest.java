@@ -0,0 +1,163 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategorySummaryDTO;
+import com.expensetracker.dto.ExpenseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+/**
+ * The minor-unit aggregation must produce the same summaries as the {@code BigDecimal} aggregation it replaced.
+ */
+class ExpenseAggregatorTest {
+
+    @Test
+    void aggregatesRowsLikeBigDecimal() {
+        Random random = new Random(42L);
+        for (int categories : new int[]{1, 10, 100}) {
+            long[] categoryIds = new long[10_000];
+            BigDecimal[] amounts = new BigDecimal[categoryIds.length];
+            for (int i = 0; i < categoryIds.length; i++) {
+                categoryIds[i] = 1 + random.nextInt(categories);
+                amounts[i] = BigDecimal.valueOf(1 + random.nextInt(500_000), 2);
+            }
+
+            ExpenseAggregator aggregator = new ExpenseAggregator();
+            for (int i = 0; i < categoryIds.length; i++) {
+                aggregator.add(categoryIds[i], "Category " + categoryIds[i], amounts[i]);
+            }
+
+            BigDecimal total = BigDecimal.ZERO;
+            for (BigDecimal amount : amounts) {
+                total = total.add(amount);
+            }
+            assertThat(aggregator.getTotalAmount()).isEqualTo(total);
+            assertThat(aggregator.getExpenseCount()).isEqualTo(categoryIds.length);
+            assertThat(aggregator.getCategorySummary()).isEqualTo(aggregateBigDecimal(categoryIds, amounts));
+        }
+    }
+
+    @Test
+    void keepsSumsExact() {
+        ExpenseAggregator aggregator = new ExpenseAggregator();
+        for (int i = 0; i < 10; i++) {
+            aggregator.add(1L, "Food", new BigDecimal("0.10"));
+        }
+        aggregator.add(2L, "Travel", new BigDecimal("0.30"));
+
+        assertThat(aggregator.getTotalAmount()).isEqualTo(new BigDecimal("1.30"));
+        List<CategorySummaryDTO> summary = aggregator.getCategorySummary();
+        assertThat(summary).extracting(CategorySummaryDTO::getCategoryId).containsExactly(1L, 2L);
+        assertThat(summary.get(0).getTotalAmount()).isEqualTo(new BigDecimal("1.00"));
+        assertThat(summary.get(0).getExpenseCount()).isEqualTo(10);
+        assertThat(summary).extracting(CategorySummaryDTO::getPercentage).containsExactly(76.92, 23.08);
+    }
+
+    @Test
+    void emptyAggregatorHasZeroTotals() {
+        ExpenseAggregator aggregator = new ExpenseAggregator();
+
+        assertThat(aggregator.getTotalAmount()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(aggregator.getExpenseCount()).isZero();
+        assertThat(aggregator.getCategorySummary()).isEmpty();
+    }
+
+    @Test
+    void appliesPercentagesLikeBigDecimal() {
+        Random random = new Random(7L);
+        List<CategorySummaryDTO> summary = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (long id = 1; id <= 100; id++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+            summary.add(new CategorySummaryDTO(id, "Category " + id, amount, 1L));
+            total = total.add(amount);
+        }
+
+        ExpenseAggregator.applyPercentages(summary);
+
+        for (CategorySummaryDTO category : summary) {
+            assertThat(category.getPercentage()).isEqualTo(percentageBigDecimal(category.getTotalAmount(), total));
+        }
+    }
+
+    @Test
+    void appliesZeroPercentagesWhenTotalIsZero() {
+        List<CategorySummaryDTO> summary = List.of(
+                new CategorySummaryDTO(1L, "Food", new BigDecimal("0.00"), 0L),
+                new CategorySummaryDTO(2L, "Travel", new BigDecimal("0.00"), 0L));
+
+        ExpenseAggregator.applyPercentages(summary);
+
+        assertThat(summary).extracting(CategorySummaryDTO::getPercentage).containsOnly(0.0);
+    }
+
+    @Test
+    void foldsRowsAsTheyAreConsumed() {
+        List<ExpenseDTO> rows = List.of(
+                expense(1L, "Food", "12.50"),
+                expense(2L, "Travel", "7.25"),
+                expense(1L, "Food", "0.25"));
+        ExpenseAggregator aggregator = new ExpenseAggregator();
+
+        Iterator<ExpenseDTO> iterator = aggregator.folding(rows.iterator());
+        assertThat(aggregator.getExpenseCount()).isZero();
+        List<ExpenseDTO> consumed = new ArrayList<>();
+        iterator.forEachRemaining(consumed::add);
+
+        assertThat(consumed).isEqualTo(rows);
+        assertThat(aggregator.getTotalAmount()).isEqualTo(new BigDecimal("20.00"));
+        assertThat(aggregator.getExpenseCount()).isEqualTo(3);
+        assertThat(aggregator.getCategorySummary())
+                .extracting(CategorySummaryDTO::getCategoryName, CategorySummaryDTO::getTotalAmount)
+                .containsExactly(
+                        tuple("Food", new BigDecimal("12.75")),
+                        tuple("Travel", new BigDecimal("7.25")));
+    }
+
+    private static ExpenseDTO expense(Long categoryId, String categoryName, String amount) {
+        ExpenseDTO dto = new ExpenseDTO(null, "Expense", new BigDecimal(amount), LocalDate.of(2026, 1, 1), categoryId);
+        dto.setCategoryName(categoryName);
+        return dto;
+    }
+
+    // The BigDecimal aggregation that ExpenseAggregator replaced
+    private static List<CategorySummaryDTO> aggregateBigDecimal(long[] categoryIds, BigDecimal[] amounts) {
+        Map<Long, CategorySummaryDTO> byCategory = new LinkedHashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < categoryIds.length; i++) {
+            total = total.add(amounts[i]);
+            CategorySummaryDTO category = byCategory.get(categoryIds[i]);
+            if (category == null) {
+                byCategory.put(categoryIds[i], new CategorySummaryDTO(categoryIds[i], "Category " + categoryIds[i], amounts[i], 1L));
+            } else {
+                category.setTotalAmount(category.getTotalAmount().add(amounts[i]));
+                category.setExpenseCount(category.getExpenseCount() + 1);
+            }
+        }
+        List<CategorySummaryDTO> result = new ArrayList<>(byCategory.values());
+        result.sort(Comparator.comparing(CategorySummaryDTO::getTotalAmount).reversed());
+        for (CategorySummaryDTO category : result) {
+            category.setPercentage(percentageBigDecimal(category.getTotalAmount(), total));
+        }
+        return result;
+    }
+
+    private static double percentageBigDecimal(BigDecimal part, BigDecimal total) {
+        if (total.compareTo(BigDecimal.ZERO) <= 0) {
+            return 0.0;
+        }
+        return part.divide(total, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).doubleValue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseDTO;
+import com.expensetracker.dto.ExportJobDTO;
+import com.expensetracker.dto.ExportJobRequest;
+import com.expensetracker.dto.RegisterRequest;
+import com.expensetracker.model.ExportFormat;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shares export jobs between identical requests only until the user's expenses change.
+ */
+@SpringBootTest(properties = {
+        "spring.profiles.active=h2",
+        "spring.datasource.url=jdbc:h2:mem:export-job-test;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "export.jobs.directory=${java.io.tmpdir}/expense-tracker-test-exports"
+})
+class ExportJobServiceTest {
+
+    private static final long COMPLETION_TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void writeAfterCompletedExportStartsANewJob() throws Exception {
+        User user = registerUser();
+        expenseService.createExpense(user.getId(), expense("Team lunch", "12.50"));
+        ExportJobRequest request = new ExportJobRequest(ExportFormat.CSV, null, null, null);
+
+        ExportJobDTO first = awaitCompleted(user.getId(), exportJobService.submit(user.getId(), request).getId());
+        assertThat(first.getTotalRows()).isEqualTo(1);
+        assertThat(exportJobService.submit(user.getId(), request).getId()).isEqualTo(first.getId());
+
+        expenseService.createExpense(user.getId(), expense("Train ticket", "7.25"));
+
+        ExportJobDTO second = exportJobService.submit(user.getId(), request);
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(awaitCompleted(user.getId(), second.getId()).getTotalRows()).isEqualTo(2);
+        // The earlier artifact stays downloadable by id until it expires
+        assertThat(exportJobService.getCompletedJob(user.getId(), first.getId())).isNotNull();
+    }
+
+    private User registerUser() {
+        String username = "export" + UUID.randomUUID().toString().substring(0, 8);
+        userService.register(new RegisterRequest(username, username + "@example.com", "secret123"));
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+
+    private static ExpenseDTO expense(String description, String amount) {
+        ExpenseDTO dto = new ExpenseDTO();
+        dto.setDescription(description);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setDate(LocalDate.now().minusDays(1));
+        dto.setCategoryId(1L);
+        return dto;
+    }
+
+    private ExportJobDTO awaitCompleted(Long userId, String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + COMPLETION_TIMEOUT_MILLIS;
+        ExportJobDTO job = exportJobService.getJob(userId, id);
+        while (!job.getStatus().equals("COMPLETED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = exportJobService.getJob(userId, id);
+        }
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        return job;
+    }
+}